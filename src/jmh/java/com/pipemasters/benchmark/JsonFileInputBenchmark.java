@@ -0,0 +1,64 @@
+package com.pipemasters.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pipemasters.util.JsonFileInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dunits.log.level=warn"})
+public class JsonFileInputBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int actorNodes;
+
+    @Param({"stream", "pooled", "mapped"})
+    private String input;
+
+    private ObjectMapper mapper;
+    private Path layerPath;
+    private long mmapThreshold;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper();
+        layerPath = Files.createTempFile("json-file-input-benchmark", ".json");
+        mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(layerPath.toFile(), SyntheticLayer.layer(mapper, actorNodes));
+        mmapThreshold = switch (input) {
+            case "stream" -> -1L;
+            case "pooled" -> Long.MAX_VALUE;
+            case "mapped" -> 0L;
+            default -> throw new IllegalArgumentException("Unknown input: " + input);
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(layerPath);
+    }
+
+    @Benchmark
+    public JsonNode readTree() throws IOException {
+        return JsonFileInput.readTree(mapper, layerPath, mmapThreshold, "mapped".equals(input));
+    }
+}
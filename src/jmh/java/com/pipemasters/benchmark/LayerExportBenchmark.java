@@ -0,0 +1,76 @@
+package com.pipemasters.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pipemasters.app.LayerExportApplication;
+import com.pipemasters.app.LayerExportRequest;
+import com.pipemasters.app.LayerExportResult;
+import com.pipemasters.units.Units;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dunits.log.level=warn", "-Dassets.resolutionCache=false"})
+public class LayerExportBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int actorNodes;
+
+    private Path workDir;
+    private LayerExportApplication application;
+    private LayerExportRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+
+        workDir = Files.createTempDirectory("layer-export-benchmark");
+        Path layerDir = Files.createDirectories(workDir.resolve("Exports/SquadGame/Content/Maps/Benchmark/Gameplay_Layers"));
+        Path gameplayDataPath = layerDir.resolve(SyntheticLayer.LAYER_NAME + "_Data.json");
+        Path layerPath = layerDir.resolve(SyntheticLayer.LAYER_NAME + ".json");
+        Path unitsPath = workDir.resolve("units.json");
+
+        mapper.writeValue(gameplayDataPath.toFile(), SyntheticLayer.gameplayData(mapper));
+        mapper.writeValue(layerPath.toFile(), SyntheticLayer.layer(mapper, actorNodes));
+        mapper.writeValue(unitsPath.toFile(), new Units(List.of(), List.of()));
+
+        application = new LayerExportApplication(mapper);
+        request = new LayerExportRequest(workDir, gameplayDataPath, layerPath, unitsPath);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public LayerExportResult run() throws IOException {
+        return application.run(request);
+    }
+}
@@ -0,0 +1,70 @@
+package com.pipemasters.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.assets.Assets;
+import com.pipemasters.assets.AssetsParser;
+import com.pipemasters.capture.CapturePoints;
+import com.pipemasters.capture.CapturePointsParser;
+import com.pipemasters.layerdata.GameMode;
+import com.pipemasters.mapassets.MapAssets;
+import com.pipemasters.mapassets.MapAssetsParser;
+import com.pipemasters.objectives.Objective;
+import com.pipemasters.objectives.ObjectivesParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dunits.log.level=warn"})
+public class LayerParsersBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int actorNodes;
+
+    private JsonNode layerRoot;
+    private CapturePoints capturePoints;
+    private CapturePointsParser capturePointsParser;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        layerRoot = SyntheticLayer.layer(mapper, actorNodes);
+        capturePointsParser = new CapturePointsParser(mapper);
+        capturePoints = capturePointsParser.parseCapturePoints(layerRoot, GameMode.INVASION);
+    }
+
+    @Benchmark
+    public CapturePoints capturePoints() {
+        return capturePointsParser.parseCapturePoints(layerRoot, GameMode.INVASION);
+    }
+
+    @Benchmark
+    public Map<String, Objective> objectives() {
+        return new ObjectivesParser().parseObjectives(layerRoot, capturePoints.clusters(), GameMode.INVASION);
+    }
+
+    @Benchmark
+    public MapAssets mapAssets() {
+        return new MapAssetsParser().parse(layerRoot);
+    }
+
+    @Benchmark
+    public Assets assets() {
+        return new AssetsParser().parse(layerRoot);
+    }
+}
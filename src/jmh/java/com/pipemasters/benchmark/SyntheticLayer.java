@@ -0,0 +1,223 @@
+package com.pipemasters.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Random;
+
+final class SyntheticLayer {
+    static final String LAYER_NAME = "SD_Benchmark_Invasion_v1";
+    private static final String LEVEL_PREFIX = "/Game/Maps/Benchmark/Gameplay_Layers/" + LAYER_NAME + "." + LAYER_NAME + ":PersistentLevel.";
+    private static final String[] FILLER_TYPES = {
+            "StaticMeshActor", "StaticMeshComponent", "InstancedFoliageActor", "PointLightComponent", "DecalComponent"
+    };
+
+    private final Random random = new Random(42);
+    private final ArrayNode root;
+
+    private SyntheticLayer(ObjectMapper mapper) {
+        this.root = mapper.createArrayNode();
+    }
+
+    static ArrayNode layer(ObjectMapper mapper, int actorNodes) {
+        SyntheticLayer layer = new SyntheticLayer(mapper);
+        layer.populate(actorNodes);
+        return layer.root;
+    }
+
+    static ArrayNode gameplayData(ObjectMapper mapper) {
+        ArrayNode root = mapper.createArrayNode();
+        ObjectNode layer = root.addObject();
+        layer.put("Type", "BP_SQLayer_C");
+        layer.put("Name", LAYER_NAME);
+        ObjectNode properties = layer.putObject("Properties");
+        properties.putObject("Data").put("RowName", LAYER_NAME);
+        properties.putObject("GameMode").put("RowName", "Invasion");
+        properties.put("LevelId", "Benchmark");
+        properties.putArray("Worlds").addObject()
+                .put("AssetPathName", "/Game/Maps/Benchmark/Gameplay_Layers/" + LAYER_NAME + "." + LAYER_NAME);
+        properties.putArray("FactionsList");
+        return root;
+    }
+
+    private void populate(int actorNodes) {
+        int clusters = Math.max(3, Math.min(40, actorNodes / 2_000));
+        int spawnGroups = Math.max(2, actorNodes / 1_000);
+        int vehicleSpawners = Math.max(2, actorNodes / 500);
+        int deployables = Math.max(1, actorNodes / 1_000);
+
+        addLevelAndWorldSettings();
+        addMapBoundary();
+        addCaptureGraph(clusters);
+        for (int i = 0; i < 2; i++) {
+            addProtectionZone(i);
+        }
+        for (int i = 0; i < spawnGroups; i++) {
+            addSpawnGroup(i);
+        }
+        for (int i = 0; i < vehicleSpawners; i++) {
+            addActorWithRoot("BP_VehicleSpawner_C", "VehicleSpawner_" + i)
+                    .put("Team", i % 2 == 0 ? "ESQTeam::Team_One" : "ESQTeam::Team_Two")
+                    .put("MaxNum", 1 + i % 3)
+                    .putObject("Settings").put("ObjectName", "BP_VehicleSpawnerSettings_C'Ground_CarSize'");
+        }
+        for (int i = 0; i < deployables; i++) {
+            addActorWithRoot("BP_SQDeployableSpawner_C", "DeployableSpawner_" + i)
+                    .put("Team", "ESQTeam::Team_One")
+                    .putObject("Settings").put("ObjectName", "BP_DeployableSettings_C'AmmoBox'");
+        }
+        for (int i = 0; i < 2; i++) {
+            addActorWithRoot("BP_helicopter_repair_pad_C", "HeliPad_" + i)
+                    .put("InitialTeam", i == 0 ? "ESQTeam::Team_One" : "ESQTeam::Team_Two");
+        }
+
+        int filler = 0;
+        while (root.size() < actorNodes) {
+            String type = FILLER_TYPES[filler % FILLER_TYPES.length];
+            ObjectNode node = addNode(type, type + "_" + filler, "StaticMeshActor_" + (filler / FILLER_TYPES.length));
+            ObjectNode properties = node.putObject("Properties");
+            putLocation(properties, "RelativeLocation");
+            properties.putObject("StaticMesh").put("ObjectName", "StaticMesh'SM_Rock_" + (filler % 17) + "'");
+            filler++;
+        }
+    }
+
+    private void addLevelAndWorldSettings() {
+        addNode("Level", "PersistentLevel", LAYER_NAME);
+
+        ObjectNode settings = addNode("SQWorldSettings", "SQWorldSettings", "PersistentLevel").putObject("Properties");
+        settings.putObject("DisplayTitle").put("SourceString", "Benchmark Invasion v1");
+        settings.putObject("MapCameraLocation").put("ObjectName", "CameraActor'" + LEVEL_PREFIX + "MapCamera'");
+        settings.putObject("MapTexture").put("ObjectName", "Texture2D'T_Benchmark_Minimap'");
+        settings.put("SeaLevel", -500.0);
+        for (int i = 0; i < 2; i++) {
+            String corner = "MapTextureCorner" + i;
+            settings.putObject(i == 0 ? "MapTextureCornerZero" : "MapTextureCornerOne")
+                    .put("ObjectName", "SQMapTextureCorner'" + LEVEL_PREFIX + corner + "'");
+            addNode("SQMapTextureCorner", corner, "PersistentLevel").putObject("Properties")
+                    .putObject("RootComponent").put("ObjectName", "SceneComponent'" + LEVEL_PREFIX + corner + ".DefaultSceneRoot'");
+            addSceneComponent(corner, "DefaultSceneRoot", null, i == 0 ? -200_000.0 : 200_000.0);
+        }
+        addSceneComponent("MapCamera", "SceneComponent", null, 0.0);
+    }
+
+    private void addMapBoundary() {
+        addNode("SQMapBoundary", "SQMapBoundary_1", "PersistentLevel");
+        ObjectNode properties = addNode("SplineComponent", "Spline", "SQMapBoundary_1").putObject("Properties");
+        putLocation(properties, "RelativeLocation");
+        ArrayNode points = properties.putObject("SplineCurves").putObject("Position").putArray("Points");
+        for (int i = 0; i < 16; i++) {
+            double angle = Math.PI * 2 * i / 16;
+            ObjectNode outVal = points.addObject().putObject("OutVal");
+            outVal.put("X", Math.cos(angle) * 190_000.0);
+            outVal.put("Y", Math.sin(angle) * 190_000.0);
+            outVal.put("Z", 0.0);
+        }
+    }
+
+    private void addCaptureGraph(int clusters) {
+        ObjectNode initializer = addNode("SQGraphRAASInitializerComponent", "GraphInitializer", "SQGraphRAASInitializer_1");
+        ArrayNode links = initializer.putObject("Properties").putArray("DesignOutgoingLinks");
+
+        String previous = "Team1Main";
+        addActorWithRoot("BP_CaptureZoneMain_C", previous);
+        for (int i = 0; i < clusters; i++) {
+            String cluster = "Cluster_" + (char) ('A' + i % 26) + i;
+            addNode("BP_CaptureZoneCluster_C", cluster, "PersistentLevel");
+            addSceneComponent(cluster, "DefaultSceneRoot", null, i * 10_000.0);
+            for (int j = 0; j < 2; j++) {
+                String zone = cluster + "_Zone" + j;
+                addNode("BP_CaptureZone_C", zone, "PersistentLevel");
+                addSceneComponent(zone, "DefaultSceneRoot", cluster + ".DefaultSceneRoot", 1_000.0 * j);
+                addShape("BoxComponent", zone, "CaptureBox");
+                addNode("SQCaptureZoneComponent", "CaptureZone", zone).putObject("Properties")
+                        .putObject("FlagName").put("SourceString", "Point " + cluster + "-" + j);
+            }
+            addLink(links, previous, cluster);
+            previous = cluster;
+        }
+        addActorWithRoot("BP_CaptureZoneMain_C", "Team2Main");
+        addLink(links, previous, "Team2Main");
+    }
+
+    private void addProtectionZone(int index) {
+        String name = "Gameplay_TeamZone_" + index;
+        ObjectNode properties = addNode("Gameplay_TeamZone_C", name, "PersistentLevel").putObject("Properties");
+        properties.put("TeamId", index + 1);
+        addSceneComponent(name, "DefaultSceneRoot", null, index * 150_000.0);
+        addShape("BoxComponent", name, "ZoneBox");
+        addShape("SphereComponent", name, "ZoneSphere");
+    }
+
+    private void addSpawnGroup(int index) {
+        String group = (index % 4 == 0 ? "TempSpawnGroup_" : "SpawnGroup_") + "Team" + (1 + index % 2) + "_" + index;
+        addNode("SQTeamSpawnGroup", group, "PersistentLevel");
+        addSceneComponent(group, "DefaultSceneRoot", null, index * 2_000.0);
+        for (int i = 0; i < 3; i++) {
+            String point = group + "_Point" + i;
+            addNode("SQTeamSpawnPoint", point, "PersistentLevel").putObject("Properties")
+                    .putObject("Group").put("ObjectName", "SQTeamSpawnGroup'" + LEVEL_PREFIX + group + "'");
+            addSceneComponent(point, "DefaultSceneRoot", group + ".DefaultSceneRoot", 100.0 * i);
+        }
+    }
+
+    private ObjectNode addActorWithRoot(String type, String name) {
+        ObjectNode properties = addNode(type, name, "PersistentLevel").putObject("Properties");
+        properties.putObject("RootComponent").put("ObjectName", "SceneComponent'" + LEVEL_PREFIX + name + ".DefaultSceneRoot'");
+        addSceneComponent(name, "DefaultSceneRoot", null, random.nextDouble() * 100_000.0);
+        return properties;
+    }
+
+    private void addSceneComponent(String owner, String name, String attachParent, double offset) {
+        ObjectNode properties = addNode("SceneComponent", name, owner).putObject("Properties");
+        ObjectNode location = putLocation(properties, "RelativeLocation");
+        location.put("X", location.path("X").asDouble() + offset);
+        ObjectNode rotation = properties.putObject("RelativeRotation");
+        rotation.put("Pitch", 0.0);
+        rotation.put("Yaw", random.nextDouble() * 360.0);
+        rotation.put("Roll", 0.0);
+        if (attachParent != null) {
+            properties.putObject("AttachParent").put("ObjectName", "SceneComponent'" + LEVEL_PREFIX + attachParent + "'");
+        }
+    }
+
+    private void addShape(String type, String owner, String name) {
+        ObjectNode properties = addNode(type, name, owner).putObject("Properties");
+        putLocation(properties, "RelativeLocation");
+        properties.putObject("AttachParent").put("ObjectName", "SceneComponent'" + LEVEL_PREFIX + owner + ".DefaultSceneRoot'");
+        switch (type) {
+            case "BoxComponent" -> {
+                ObjectNode extent = properties.putObject("BoxExtent");
+                extent.put("X", 2_000.0);
+                extent.put("Y", 2_000.0);
+                extent.put("Z", 500.0);
+            }
+            case "SphereComponent" -> properties.put("SphereRadius", 5_000.0);
+            default -> {
+            }
+        }
+    }
+
+    private void addLink(ArrayNode links, String nodeA, String nodeB) {
+        ObjectNode link = links.addObject();
+        link.putObject("NodeA").put("ObjectName", "BP_CaptureZoneCluster_C'" + LEVEL_PREFIX + nodeA + "'");
+        link.putObject("NodeB").put("ObjectName", "BP_CaptureZoneCluster_C'" + LEVEL_PREFIX + nodeB + "'");
+    }
+
+    private ObjectNode addNode(String type, String name, String outer) {
+        ObjectNode node = root.addObject();
+        node.put("Type", type);
+        node.put("Name", name);
+        node.put("Outer", outer);
+        return node;
+    }
+
+    private ObjectNode putLocation(ObjectNode properties, String field) {
+        ObjectNode location = properties.putObject(field);
+        location.put("X", (random.nextDouble() - 0.5) * 300_000.0);
+        location.put("Y", (random.nextDouble() - 0.5) * 300_000.0);
+        location.put("Z", random.nextDouble() * 5_000.0);
+        return location;
+    }
+}
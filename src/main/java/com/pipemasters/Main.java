@@ -3,21 +3,22 @@ package com.pipemasters;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.pipemasters.app.LayerBatchExportRequest;
+import com.pipemasters.app.LayerBatchExportSummary;
+import com.pipemasters.app.LayerBatchExporter;
 import com.pipemasters.app.LayerExportApplication;
 import com.pipemasters.app.LayerExportArgumentsParser;
 import com.pipemasters.app.LayerExportException;
-import com.pipemasters.app.LayerExportRequest;
-import com.pipemasters.app.LayerExportResult;
-import com.pipemasters.util.MissingAssetLogger;
+import com.pipemasters.app.LayerExportWatcher;
+import com.pipemasters.app.LayerOutputWriter;
+import com.pipemasters.units.UnitsCache;
+import com.pipemasters.units.UnitsWorkspace;
+import com.pipemasters.util.AssetResolver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public final class Main {
     private static final Logger LOGGER = LogManager.getLogger(Main.class);
@@ -42,10 +43,22 @@ public final class Main {
             return;
         }
 
+        if (batchRequest.unitsSourcePath() != null && !Files.isDirectory(batchRequest.unitsSourcePath())) {
+            LOGGER.error("Units source directory '{}' does not exist.", batchRequest.unitsSourcePath());
+            System.exit(1);
+            return;
+        }
+
         ObjectMapper mapper = new ObjectMapper();
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
 
-        LayerExportApplication application = new LayerExportApplication(mapper);
+        LayerOutputWriter outputWriter = new LayerOutputWriter(mapper, batchRequest.compactOutput(), batchRequest.gzipOutput());
+        LayerExportApplication application = new LayerExportApplication(mapper, new UnitsCache(mapper), outputWriter);
+        if (batchRequest.watch()) {
+            new LayerExportWatcher(new LayerBatchExporter(application, argumentsParser), new UnitsWorkspace(mapper)).watch(batchRequest);
+            return;
+        }
+
         List<String> layerDefinitions;
         LOGGER.info("Reading layer definitions from '{}'.", batchRequest.layerListPath());
         try {
@@ -57,62 +70,20 @@ public final class Main {
         }
         LOGGER.info("Loaded {} layer definition(s).", layerDefinitions.size());
 
-        int processed = 0;
-        int succeeded = 0;
-        int failed = 0;
-        Set<String> processedRequests = new HashSet<>();
-
-        for (int i = 0; i < layerDefinitions.size(); i++) {
-            int lineNumber = i + 1;
-            LOGGER.debug("Parsing layer definition at line {}: {}", lineNumber, layerDefinitions.get(i));
-            LayerExportRequest request;
-            try {
-                request = argumentsParser.parseLayerDefinition(layerDefinitions.get(i), batchRequest, lineNumber);
-            } catch (LayerExportException e) {
-                LOGGER.warn("Line {}: {}", lineNumber, e.getMessage());
-                failed++;
-                continue;
-            }
-
-            if (request == null) {
-                LOGGER.debug("Line {} did not produce a request (blank/comment). Skipping.", lineNumber);
-                continue;
-            }
+        LayerBatchExporter batchExporter = new LayerBatchExporter(application, argumentsParser);
+        LayerBatchExportSummary summary = batchExporter.export(layerDefinitions, batchRequest);
+        AssetResolver.flushResolutionCaches();
+        int processed = summary.processed();
+        int succeeded = summary.succeeded();
+        int failed = summary.failed();
 
-            String deduplicationKey = buildDeduplicationKey(request);
-            if (!processedRequests.add(deduplicationKey)) {
-                LOGGER.info("[{}] Gameplay data '{}' (layer '{}') already queued earlier. Skipping duplicate entry.",
-                        lineNumber,
-                        request.gameplayDataPath(),
-                        request.explicitLayerPath());
-                processed--;
-                continue;
-            }
-
-            processed++;
-            LOGGER.info("[{}] Running export for gameplay data '{}'.", lineNumber, request.gameplayDataPath());
-            try {
-                LayerExportResult result = application.run(request);
-                String reportedVersion = result.layerVersion() != null && !result.layerVersion().isBlank()
-                        ? result.layerVersion()
-                        : "<unknown>";
-                LOGGER.info("[{}] Wrote layer with version {} JSON  to '{}'", lineNumber, reportedVersion, result.outputPath());
-                succeeded++;
-            } catch (LayerExportException | IOException e) {
-                LOGGER.error("[{}] {}", lineNumber, e.getMessage());
-                failed++;
-            }
+        LOGGER.info("Finished processing {} layer definitions. Successes: {} ({} unchanged). Failures: {}.", processed, succeeded, summary.skipped(), failed);
+        if (summary.performance().layers() > 0) {
+            LOGGER.info("Per-stage layer export timings:{}{}", System.lineSeparator(), summary.performance().toTable());
         }
-
-        LOGGER.info("Finished processing {} layer definitions. Successes: {}. Failures: {}.", processed, succeeded, failed);
         if (failed > 0) {
             LOGGER.warn("Exiting with non-zero status because {} layer definition(s) failed.", failed);
             System.exit(1);
         }
     }
-    private static String buildDeduplicationKey(LayerExportRequest request) {
-//        String explicitLayerPath = request.explicitLayerPath() == null ? "" : request.explicitLayerPath().toString();
-//        return request.gameplayDataPath().toString() + "|" + explicitLayerPath;
-        return request.gameplayDataPath().toString();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.pipemasters.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.layer.LayerPathResolver;
+import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.FileFingerprint;
+import com.pipemasters.util.FileFingerprints;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class ExportManifest {
+    private static final Logger LOGGER = LogManager.getLogger(ExportManifest.class);
+    static final String FILE_NAME = ".manifest";
+    private static final int FORMAT_VERSION = 2;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String EXPORTER_VERSION = FileFingerprints.codeStamp(ExportManifest.class);
+
+    private final Path outputDir;
+    private final Path manifestFile;
+    private final String options;
+    private final boolean gzip;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final FileFingerprints fingerprints = new FileFingerprints();
+    private final LayerPathResolver layerPathResolver = new LayerPathResolver();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private ExportManifest(Path outputDir, boolean compact, boolean gzip) {
+        this.outputDir = outputDir;
+        this.manifestFile = outputDir.resolve(FILE_NAME);
+        this.options = "compact=" + compact + ";gzip=" + gzip;
+        this.gzip = gzip;
+    }
+
+    static ExportManifest load(Path outputDir, LayerBatchExportRequest batchRequest) {
+        ExportManifest manifest = new ExportManifest(outputDir.toAbsolutePath().normalize(), batchRequest.compactOutput(), batchRequest.gzipOutput());
+        manifest.read();
+        return manifest;
+    }
+
+    LayerExportResult findUpToDate(LayerExportRequest request) {
+        Entry entry = entries.get(key(request));
+        if (entry == null
+                || EXPORTER_VERSION == null
+                || !EXPORTER_VERSION.equals(entry.exporterVersion())
+                || !options.equals(entry.options())) {
+            return null;
+        }
+        Path outputPath = outputDir.resolve(entry.outputFile());
+        if (!Files.isRegularFile(outputPath)) {
+            return null;
+        }
+        if (gzip && !Files.isRegularFile(outputPath.resolveSibling(entry.outputFile() + ".gz"))) {
+            return null;
+        }
+        Path layerPath = Path.of(entry.layer().path());
+        if (!matches(entry.gameplayData(), request.gameplayDataPath())
+                || !resolvesTo(request, entry.layerAssetPath(), layerPath)
+                || !matches(entry.layer(), layerPath)
+                || !matches(entry.units(), request.unitsPath())) {
+            return null;
+        }
+        if (fingerprints.isHashed(request.gameplayDataPath())
+                || fingerprints.isHashed(layerPath)
+                || fingerprints.isHashed(request.unitsPath())) {
+            record(request, new LayerExportResult(outputPath, entry.layerVersion(), layerPath, entry.layerAssetPath()));
+        }
+        return new LayerExportResult(outputPath, entry.layerVersion(), layerPath, entry.layerAssetPath());
+    }
+
+    FileFingerprints fingerprints() {
+        return fingerprints;
+    }
+
+    void record(LayerExportRequest request, LayerExportResult result) {
+        if (EXPORTER_VERSION == null) {
+            return;
+        }
+        try {
+            Entry entry = new Entry(
+                    outputDir.relativize(result.outputPath().toAbsolutePath().normalize()).toString(),
+                    result.layerVersion(),
+                    EXPORTER_VERSION,
+                    options,
+                    fingerprint(request.gameplayDataPath()),
+                    fingerprint(result.layerPath()),
+                    result.layerAssetPath(),
+                    fingerprint(request.unitsPath()));
+            entries.put(key(request), entry);
+            dirty.set(true);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to fingerprint inputs of '{}': {}", request.gameplayDataPath(), e.getMessage());
+            remove(request);
+        }
+    }
+
+    void remove(LayerExportRequest request) {
+        if (entries.remove(key(request)) != null) {
+            dirty.set(true);
+        }
+    }
+
+    void save() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            Files.createDirectories(outputDir);
+            Path temp = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+            MAPPER.writeValue(temp.toFile(), new ManifestFile(FORMAT_VERSION, new TreeMap<>(entries)));
+            Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.debug("Saved {} export manifest entr(ies) to '{}'.", entries.size(), manifestFile);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to save export manifest '{}': {}", manifestFile, e.getMessage());
+        }
+    }
+
+    private void read() {
+        if (!Files.isRegularFile(manifestFile)) {
+            return;
+        }
+        try {
+            ManifestFile file = MAPPER.readValue(manifestFile.toFile(), ManifestFile.class);
+            if (file.version() != FORMAT_VERSION || file.entries() == null) {
+                LOGGER.debug("Ignoring export manifest '{}' written in a different format.", manifestFile);
+                return;
+            }
+            entries.putAll(file.entries());
+            LOGGER.debug("Loaded {} export manifest entr(ies) from '{}'.", entries.size(), manifestFile);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Discarding unreadable export manifest '{}': {}", manifestFile, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private boolean matches(FileFingerprint recorded, Path path) {
+        if (recorded == null || path == null) {
+            return recorded == null && path == null;
+        }
+        return recorded.path().equals(normalize(path).toString()) && fingerprints.matches(recorded);
+    }
+
+    private boolean resolvesTo(LayerExportRequest request, String layerAssetPath, Path layerPath) {
+        if (request.explicitLayerPath() != null) {
+            return normalize(request.explicitLayerPath()).equals(layerPath);
+        }
+        if (layerAssetPath == null || layerAssetPath.isBlank()) {
+            return false;
+        }
+        Path exportsRoot = layerPathResolver.resolveExportsRoot(request.gameplayDataPath());
+        Path resolved = new AssetResolver(exportsRoot).resolve(layerAssetPath);
+        return resolved != null && normalize(resolved).equals(layerPath);
+    }
+
+    private FileFingerprint fingerprint(Path path) throws IOException {
+        return path != null ? fingerprints.fingerprint(path) : null;
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static String key(LayerExportRequest request) {
+        String explicitLayerPath = request.explicitLayerPath() == null ? "" : normalize(request.explicitLayerPath()).toString();
+        return normalize(request.gameplayDataPath()) + "|" + explicitLayerPath;
+    }
+
+    private record ManifestFile(int version, Map<String, Entry> entries) {
+    }
+
+    private record Entry(String outputFile,
+                         String layerVersion,
+                         String exporterVersion,
+                         String options,
+                         FileFingerprint gameplayData,
+                         FileFingerprint layer,
+                         String layerAssetPath,
+                         FileFingerprint units) {
+    }
+}
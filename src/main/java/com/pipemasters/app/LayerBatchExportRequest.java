@@ -2,5 +2,14 @@ package com.pipemasters.app;
 
 import java.nio.file.Path;
 
-public record LayerBatchExportRequest(Path projectRoot, Path layerListPath, Path unitsPath) {
-}
\ No newline at end of file
+public record LayerBatchExportRequest(Path projectRoot,
+                                      Path layerListPath,
+                                      Path unitsPath,
+                                      int workerCount,
+                                      boolean virtualThreads,
+                                      boolean compactOutput,
+                                      boolean gzipOutput,
+                                      boolean force,
+                                      boolean watch,
+                                      Path unitsSourcePath) {
+}
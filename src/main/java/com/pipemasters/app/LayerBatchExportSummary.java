@@ -0,0 +1,4 @@
+package com.pipemasters.app;
+
+public record LayerBatchExportSummary(int processed, int succeeded, int failed, int skipped, LayerPerformanceSummary performance) {
+}
@@ -0,0 +1,230 @@
+package com.pipemasters.app;
+
+import com.pipemasters.util.MissingAssetCollector;
+import com.pipemasters.util.MissingAssetReport;
+import com.pipemasters.util.WorkerExecutors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+public final class LayerBatchExporter {
+    private static final Logger LOGGER = LogManager.getLogger(LayerBatchExporter.class);
+
+    private final LayerExportApplication application;
+    private final LayerExportArgumentsParser argumentsParser;
+
+    public LayerBatchExporter(LayerExportApplication application, LayerExportArgumentsParser argumentsParser) {
+        this.application = Objects.requireNonNull(application, "application");
+        this.argumentsParser = Objects.requireNonNull(argumentsParser, "argumentsParser");
+    }
+
+    public LayerBatchExportSummary export(List<String> layerDefinitions, LayerBatchExportRequest batchRequest) {
+        return export(layerDefinitions, batchRequest, request -> true, (request, result) -> {
+        });
+    }
+
+    LayerBatchExportSummary export(List<String> layerDefinitions,
+                                   LayerBatchExportRequest batchRequest,
+                                   Predicate<LayerExportRequest> selection,
+                                   BiConsumer<LayerExportRequest, LayerExportResult> completion) {
+        Objects.requireNonNull(layerDefinitions, "layerDefinitions");
+        Objects.requireNonNull(batchRequest, "batchRequest");
+        Objects.requireNonNull(selection, "selection");
+        Objects.requireNonNull(completion, "completion");
+
+        int processed = 0;
+        int succeeded = 0;
+        int failed = 0;
+        int skipped = 0;
+        Set<String> processedRequests = new HashSet<>();
+        List<QueuedExport> queue = new ArrayList<>();
+
+        for (int i = 0; i < layerDefinitions.size(); i++) {
+            int lineNumber = i + 1;
+            LOGGER.debug("Parsing layer definition at line {}: {}", lineNumber, layerDefinitions.get(i));
+            LayerExportRequest request;
+            try {
+                request = argumentsParser.parseLayerDefinition(layerDefinitions.get(i), batchRequest, lineNumber);
+            } catch (LayerExportException e) {
+                LOGGER.warn("Line {}: {}", lineNumber, e.getMessage());
+                failed++;
+                continue;
+            }
+
+            if (request == null) {
+                LOGGER.debug("Line {} did not produce a request (blank/comment). Skipping.", lineNumber);
+                continue;
+            }
+
+            String deduplicationKey = buildDeduplicationKey(request);
+            if (!processedRequests.add(deduplicationKey)) {
+                LOGGER.info("[{}] Gameplay data '{}' (layer '{}') already queued earlier. Skipping duplicate entry.",
+                        lineNumber,
+                        request.gameplayDataPath(),
+                        request.explicitLayerPath());
+                processed--;
+                continue;
+            }
+
+            if (!selection.test(request)) {
+                LOGGER.debug("[{}] Gameplay data '{}' is not affected by the latest changes. Skipping.", lineNumber, request.gameplayDataPath());
+                continue;
+            }
+
+            processed++;
+            queue.add(new QueuedExport(lineNumber, request));
+        }
+
+        if (queue.isEmpty()) {
+            return new LayerBatchExportSummary(processed, succeeded, failed, skipped, LayerPerformanceSummary.empty());
+        }
+
+        int workerCount = Math.max(1, Math.min(batchRequest.workerCount(), queue.size()));
+        if (batchRequest.virtualThreads()) {
+            LOGGER.info("Exporting {} layer(s) on virtual threads with at most {} in flight.", queue.size(), workerCount);
+        } else {
+            LOGGER.info("Exporting {} layer(s) using {} worker thread(s).", queue.size(), workerCount);
+        }
+        MissingAssetCollector missingLayers = new MissingAssetCollector();
+        LayerPerformanceReport performance = new LayerPerformanceReport();
+        ExportManifest manifest = ExportManifest.load(batchRequest.projectRoot().resolve("output"), batchRequest);
+        if (batchRequest.force()) {
+            LOGGER.info("Ignoring the export manifest; every layer will be re-exported.");
+        }
+        LayerSectionCache sectionCache = LayerSectionCache.isEnabled()
+                ? new LayerSectionCache(manifest.fingerprints())
+                : LayerSectionCache.disabled();
+        ExecutorService executor = WorkerExecutors.newWorkerPool("layer-export", workerCount, batchRequest.virtualThreads());
+        try {
+            List<Future<ExportOutcome>> futures = new ArrayList<>(queue.size());
+            for (QueuedExport export : queue) {
+                futures.add(executor.submit(() -> runExport(export, missingLayers, performance, sectionCache, manifest, batchRequest.force())));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                ExportOutcome outcome = awaitOutcome(futures.get(i));
+                completion.accept(queue.get(i).request(), outcome.error() == null ? outcome.result() : null);
+                if (outcome.error() == null && outcome.skipped()) {
+                    LOGGER.info("[{}] Inputs unchanged since the last export of '{}'. Skipping.", outcome.lineNumber(), outcome.result().outputPath());
+                    succeeded++;
+                    skipped++;
+                } else if (outcome.error() == null) {
+                    LayerExportResult result = outcome.result();
+                    String reportedVersion = result.layerVersion() != null && !result.layerVersion().isBlank()
+                            ? result.layerVersion()
+                            : "<unknown>";
+                    LOGGER.info("[{}] Wrote layer with version {} JSON  to '{}'", outcome.lineNumber(), reportedVersion, result.outputPath());
+                    succeeded++;
+                } else {
+                    LOGGER.error("[{}] {}", outcome.lineNumber(), outcome.error());
+                    failed++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            manifest.save();
+        }
+
+        if (sectionCache.reusedCount() > 0) {
+            LOGGER.info("Reused parsed layer sections for {} entr(ies) that share a layer file and game mode.", sectionCache.reusedCount());
+        }
+        writeMissingLayers(missingLayers);
+        LayerPerformanceSummary performanceSummary = performance.summarize();
+        writePerformance(batchRequest.projectRoot().resolve("output"), performanceSummary);
+        return new LayerBatchExportSummary(processed, succeeded, failed, skipped, performanceSummary);
+    }
+
+    private void writePerformance(Path outputDir, LayerPerformanceSummary summary) {
+        if (summary.layers() == 0) {
+            return;
+        }
+        try {
+            LayerPerformanceReport.write(outputDir, summary);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write layer timings: {}", e.getMessage());
+        }
+    }
+
+    private void writeMissingLayers(MissingAssetCollector missingLayers) {
+        MissingAssetReport report;
+        try {
+            report = missingLayers.write(LayerExportApplication.MISSING_LAYERS_FILE, LayerExportApplication.MISSING_LAYERS_REPORT);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write missing layer report: {}", e.getMessage());
+            return;
+        }
+        if (report.assetCount() > 0) {
+            LOGGER.warn("{} missing layer asset(s) referenced {} time(s). See '{}' and '{}'.",
+                    report.assetCount(),
+                    report.referenceCount(),
+                    LayerExportApplication.MISSING_LAYERS_FILE.toAbsolutePath(),
+                    LayerExportApplication.MISSING_LAYERS_REPORT.toAbsolutePath());
+        }
+    }
+
+    private ExportOutcome runExport(QueuedExport export,
+                                    MissingAssetCollector missingLayers,
+                                    LayerPerformanceReport performance,
+                                    LayerSectionCache sectionCache,
+                                    ExportManifest manifest,
+                                    boolean force) {
+        LayerExportRequest request = export.request();
+        if (!force) {
+            LayerExportResult upToDate = manifest.findUpToDate(request);
+            if (upToDate != null) {
+                return new ExportOutcome(export.lineNumber(), upToDate, null, true);
+            }
+        }
+        LOGGER.info("[{}] Running export for gameplay data '{}'.", export.lineNumber(), request.gameplayDataPath());
+        try {
+            LayerStageTimer timer = new LayerStageTimer(request.gameplayDataPath());
+            LayerExportResult result = application.run(request, missingLayers, timer, sectionCache);
+            performance.add(export.lineNumber(), result.outputPath().getFileName().toString(), timer.timings());
+            manifest.record(request, result);
+            return new ExportOutcome(export.lineNumber(), result, null, false);
+        } catch (LayerExportException | IOException e) {
+            manifest.remove(request);
+            return new ExportOutcome(export.lineNumber(), null, e.getMessage(), false);
+        }
+    }
+
+    private ExportOutcome awaitOutcome(Future<ExportOutcome> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LayerExportException("Interrupted while waiting for layer exports to finish.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new LayerExportException("Layer export failed unexpectedly.", cause);
+        }
+    }
+
+    private static String buildDeduplicationKey(LayerExportRequest request) {
+        return request.gameplayDataPath().toString();
+    }
+
+    private record QueuedExport(int lineNumber, LayerExportRequest request) {
+    }
+
+    private record ExportOutcome(int lineNumber, LayerExportResult result, String error, boolean skipped) {
+    }
+}
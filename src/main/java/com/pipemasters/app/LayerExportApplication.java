@@ -2,27 +2,34 @@ package com.pipemasters.app;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.pipemasters.assets.Assets;
 import com.pipemasters.assets.AssetsParser;
 import com.pipemasters.capture.CapturePoints;
 import com.pipemasters.capture.CapturePointsParser;
 import com.pipemasters.gameplay.GameplayDataInfo;
 import com.pipemasters.gameplay.GameplayDataParser;
+import com.pipemasters.geometry.ComponentGraph;
+import com.pipemasters.layer.LayerJsonReader;
 import com.pipemasters.layer.LayerMetadata;
 import com.pipemasters.layer.LayerMetadataParser;
 import com.pipemasters.layer.LayerPathResolver;
+import com.pipemasters.layer.LayerScanner;
 import com.pipemasters.layerdata.GameMode;
 import com.pipemasters.layerdata.LayerDataParser;
 import com.pipemasters.layerdata.TeamConfigurationComposer;
 import com.pipemasters.mapassets.MapAssets;
 import com.pipemasters.mapassets.MapAssetsParser;
-import com.pipemasters.model.Layer;
 import com.pipemasters.model.LayerTeamConfiguration;
 import com.pipemasters.objectives.Objective;
 import com.pipemasters.objectives.ObjectivesParser;
 import com.pipemasters.units.UnitFactionFactory;
 import com.pipemasters.units.Units;
+import com.pipemasters.units.UnitsCache;
 import com.pipemasters.units.UnitsFilter;
+import com.pipemasters.units.UnitsIndex;
+import com.pipemasters.util.JsonFileInput;
+import com.pipemasters.util.MissingAssetCollector;
 import com.pipemasters.util.MissingAssetLogger;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -38,24 +45,56 @@ import java.util.regex.Pattern;
 public final class LayerExportApplication {
     private static final Pattern VERSION_SEGMENT_PATTERN = Pattern.compile("(?i)_v\\d+(?:\\.\\d+)?");
     private static final Logger LOGGER  = LogManager.getLogger(LayerExportApplication.class);
+    static final Path MISSING_LAYERS_FILE = Path.of("missing-layers.txt");
+    static final Path MISSING_LAYERS_REPORT = Path.of("missing-layers.json");
     private final ObjectMapper mapper;
     private final GameplayDataParser gameplayDataParser;
     private final LayerPathResolver layerPathResolver;
+    private final LayerJsonReader layerJsonReader;
     private final LayerDataParser layerDataParser;
     private final TeamConfigurationComposer teamConfigurationComposer;
     private final UnitsFilter unitsFilter;
+    private final UnitsCache unitsCache;
+    private final LayerOutputWriter outputWriter;
 
     public LayerExportApplication(ObjectMapper mapper) {
+        this(mapper, new UnitsCache(mapper));
+    }
+
+    public LayerExportApplication(ObjectMapper mapper, UnitsCache unitsCache) {
+        this(mapper, unitsCache, new LayerOutputWriter(mapper, !mapper.isEnabled(SerializationFeature.INDENT_OUTPUT), false));
+    }
+
+    public LayerExportApplication(ObjectMapper mapper, UnitsCache unitsCache, LayerOutputWriter outputWriter) {
         this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.unitsCache = Objects.requireNonNull(unitsCache, "unitsCache");
+        this.outputWriter = Objects.requireNonNull(outputWriter, "outputWriter");
         this.layerDataParser = new LayerDataParser(mapper);
         this.gameplayDataParser = new GameplayDataParser();
         this.layerPathResolver = new LayerPathResolver();
+        this.layerJsonReader = new LayerJsonReader(mapper);
         this.teamConfigurationComposer = new TeamConfigurationComposer(layerDataParser, new UnitFactionFactory());
         this.unitsFilter = new UnitsFilter();
     }
 
     public LayerExportResult run(LayerExportRequest request) throws IOException {
+        return run(request, null);
+    }
+
+    public LayerExportResult run(LayerExportRequest request, MissingAssetCollector missingLayers) throws IOException {
+        return run(request,
+                missingLayers,
+                new LayerStageTimer(Objects.requireNonNull(request, "request").gameplayDataPath()),
+                LayerSectionCache.disabled());
+    }
+
+    LayerExportResult run(LayerExportRequest request,
+                          MissingAssetCollector missingLayers,
+                          LayerStageTimer timer,
+                          LayerSectionCache sectionCache) throws IOException {
         Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(timer, "timer");
+        Objects.requireNonNull(sectionCache, "sectionCache");
         LOGGER.info("Starting layer export for gameplay data '{}'", request.gameplayDataPath());
 
         if (!Files.exists(request.gameplayDataPath())) {
@@ -63,53 +102,55 @@ public final class LayerExportApplication {
         }
 
         LOGGER.debug("Reading gameplay data from '{}'.", request.gameplayDataPath());
-        JsonNode gameplayDataRoot = mapper.readTree(request.gameplayDataPath().toFile());
+        timer.start(LayerExportStage.GAMEPLAY_READ);
+        JsonNode gameplayDataRoot = JsonFileInput.readTree(mapper, request.gameplayDataPath());
         GameplayDataInfo gameplayDataInfo = gameplayDataParser.parse(gameplayDataRoot);
+        LayerExportContext context = new LayerExportContext(request, gameplayDataRoot, gameplayDataInfo);
         LOGGER.info("Loaded gameplay data '{}' (row '{}', reported version: {}).",
                 gameplayDataInfo.layerName(),
                 gameplayDataInfo.rowName(),
                 gameplayDataInfo.layerVersion());
 
-        Path exportsRoot = layerPathResolver.resolveExportsRoot(request.gameplayDataPath());
-        MissingAssetLogger missingLayerLogger = new MissingAssetLogger(exportsRoot, Path.of("missing-layers.txt"));
-        
-        Path layerJsonPath = layerPathResolver.resolveLayerJson(
-                request.explicitLayerPath(),
-                gameplayDataInfo,
-                exportsRoot,
-                missingLayerLogger,
-                request.gameplayDataPath());
+        try {
+            return export(context, missingLayers, timer, sectionCache);
+        } finally {
+            timer.stop();
+        }
+    }
 
-        LOGGER.info("Resolved layer JSON path to '{}'.", layerJsonPath);
-        JsonNode layerRoot = mapper.readTree(layerJsonPath.toFile());
-        GameMode gameMode = layerDataParser.parseGameMode(request.gameplayDataPath());
+    private LayerExportResult export(LayerExportContext context,
+                                     MissingAssetCollector missingLayers,
+                                     LayerStageTimer timer,
+                                     LayerSectionCache sectionCache) throws IOException {
+        LayerExportRequest request = context.request();
+        GameplayDataInfo gameplayDataInfo = context.gameplayDataInfo();
 
-        CapturePointsParser capturePointsParser = new CapturePointsParser(mapper);
-        CapturePoints capturePoints = capturePointsParser.parseCapturePoints(layerRoot, gameMode);
-        ObjectivesParser objectivesParser = new ObjectivesParser();
-        Map<String, Objective> objectives = objectivesParser.parseObjectives(layerRoot, capturePoints.clusters(), gameMode);
+        timer.start(LayerExportStage.LAYER_PATH);
+        Path exportsRoot = layerPathResolver.resolveExportsRoot(context.gameplayDataPath());
+        Path layerJsonPath;
+        try (MissingAssetLogger missingLayerLogger = missingLayers != null
+                ? new MissingAssetLogger(exportsRoot, missingLayers)
+                : new MissingAssetLogger(exportsRoot, MISSING_LAYERS_FILE)) {
+            layerJsonPath = layerPathResolver.resolveLayerJson(
+                    request.explicitLayerPath(),
+                    gameplayDataInfo,
+                    exportsRoot,
+                    missingLayerLogger,
+                    context.gameplayDataPath());
+        }
 
-        LayerMetadataParser metadataParser = new LayerMetadataParser();
-        LayerMetadata metadata = metadataParser.parse(layerJsonPath, layerRoot);
+        LOGGER.info("Resolved layer JSON path to '{}'.", layerJsonPath);
+        GameMode gameMode = layerDataParser.parseGameMode(context.gameplayDataRoot());
+        timer.start(LayerExportStage.SHARED_SECTIONS);
+        LayerSectionCache.LayerSections sections = sectionCache.get(layerJsonPath, gameMode, () -> parseSections(layerJsonPath, gameMode, timer));
+
+        LayerMetadata metadata = sections.metadata();
         String dataLayerVersion = gameplayDataInfo.layerVersion();
         if (dataLayerVersion != null && !dataLayerVersion.isBlank()) {
             metadata = metadata.withLayerVersion(dataLayerVersion);
         }
 
-        MapAssetsParser mapAssetsParser = new MapAssetsParser();
-        MapAssets mapAssets = mapAssetsParser.parse(layerRoot);
-
-        AssetsParser assetsParser = new AssetsParser();
-        Assets assets = assetsParser.parse(layerRoot);
-
-        Units units = loadUnits(request.unitsPath());
-        LayerTeamConfiguration teamConfiguration = teamConfigurationComposer.compose(request.gameplayDataPath(), units);
-
-        Units adjustedUnits = adjustUnitsForMirroredFactions(units, teamConfiguration);
-        Units filteredUnits = unitsFilter.filter(adjustedUnits, teamConfiguration);
-
-        Layer layer = new Layer(metadata, capturePoints, objectives, mapAssets, assets, teamConfiguration, filteredUnits);
-
+        timer.start(LayerExportStage.SERIALIZATION);
         Path outputDir = request.projectRoot().resolve("output");
         Files.createDirectories(outputDir);
 
@@ -120,29 +161,86 @@ public final class LayerExportApplication {
         if (Files.exists(outputPath)) {
             LOGGER.warn("Output file '{}' already exists and will be overwritten.", outputPath);
         }
-        Files.deleteIfExists(outputPath);
-        mapper.writeValue(outputPath.toFile(), layer);
+        try (LayerOutputWriter.Session output = outputWriter.open(outputPath)) {
+            output.writeMetadata(metadata);
+            output.writeAssets(sections.assets());
+            output.writeCapturePoints(sections.capturePoints());
+            output.writeObjectives(sections.objectives());
+            output.writeMapAssets(sections.mapAssets());
+
+            timer.start(LayerExportStage.UNITS);
+            UnitsIndex units = loadUnits(request.unitsPath());
+            timer.start(LayerExportStage.TEAM_CONFIG);
+            LayerTeamConfiguration teamConfiguration = teamConfigurationComposer.compose(context.gameplayDataRoot(), units);
+            timer.start(LayerExportStage.SERIALIZATION);
+            output.writeTeamConfigs(teamConfiguration);
+
+            timer.start(LayerExportStage.UNITS);
+            UnitsIndex adjustedUnits = adjustUnitsForMirroredFactions(units, teamConfiguration);
+            Units filteredUnits = unitsFilter.filter(adjustedUnits, teamConfiguration);
+            timer.start(LayerExportStage.SERIALIZATION);
+            output.writeUnits(filteredUnits);
+            output.commit();
+        }
+
+        return new LayerExportResult(outputPath, metadata.layerVersion(), layerJsonPath, gameplayDataInfo.worldAssetPath());
+    }
+
+    private LayerSectionCache.LayerSections parseSections(Path layerJsonPath, GameMode gameMode, LayerStageTimer timer) throws IOException {
+        timer.start(LayerExportStage.LAYER_TREE);
+        CapturePointsParser capturePointsParser = new CapturePointsParser(mapper);
+        ObjectivesParser objectivesParser = new ObjectivesParser();
+        LayerMetadataParser metadataParser = new LayerMetadataParser();
+        MapAssetsParser mapAssetsParser = new MapAssetsParser();
+        AssetsParser assetsParser = new AssetsParser();
+
+        ComponentGraph components = new ComponentGraph();
+        CapturePointsParser.Scan capturePointsScan = capturePointsParser.newScan();
+        ObjectivesParser.Scan objectivesScan = objectivesParser.newScan();
+        LayerMetadataParser.Scan metadataScan = metadataParser.newScan();
+        MapAssetsParser.Scan mapAssetsScan = mapAssetsParser.newScan();
+        AssetsParser.Scan assetsScan = assetsParser.newScan();
+        LayerScanner scanner = new LayerScanner()
+                .register(components)
+                .register(capturePointsScan)
+                .register(objectivesScan)
+                .register(metadataScan)
+                .register(mapAssetsScan)
+                .register(assetsScan);
+        JsonNode layerRoot = layerJsonReader.read(layerJsonPath, scanner.nodeTypes());
+
+        timer.start(LayerExportStage.LAYER_SCAN);
+        scanner.scan(layerRoot);
 
-        return new LayerExportResult(outputPath, metadata.layerVersion());
+        timer.start(LayerExportStage.METADATA);
+        LayerMetadata metadata = metadataParser.parse(layerJsonPath, metadataScan);
+        timer.start(LayerExportStage.ASSETS);
+        Assets assets = assetsParser.parse(assetsScan, components);
+        timer.start(LayerExportStage.CAPTURE_POINTS);
+        CapturePoints capturePoints = capturePointsParser.parseCapturePoints(capturePointsScan, gameMode);
+        timer.start(LayerExportStage.OBJECTIVES);
+        Map<String, Objective> objectives = objectivesParser.parseObjectives(objectivesScan, components, capturePoints.clusters(), gameMode);
+        timer.start(LayerExportStage.MAP_ASSETS);
+        MapAssets mapAssets = mapAssetsParser.parse(mapAssetsScan, components);
+        return new LayerSectionCache.LayerSections(metadata, assets, capturePoints, objectives, mapAssets);
     }
 
-    private Units loadUnits(Path unitsPath) throws IOException {
+    private UnitsIndex loadUnits(Path unitsPath) throws IOException {
         if (unitsPath == null || !Files.exists(unitsPath)) {
             LOGGER.warn("Units data not found at '{}'. Continuing without units data.", unitsPath);
             return null;
         }
-        LOGGER.info("Loading units data from '{}'.", unitsPath);
-        return mapper.readValue(unitsPath.toFile(), Units.class);
+        return unitsCache.load(unitsPath);
     }
 
-    private Units adjustUnitsForMirroredFactions(Units units, LayerTeamConfiguration teamConfiguration) {
+    private UnitsIndex adjustUnitsForMirroredFactions(UnitsIndex units, LayerTeamConfiguration teamConfiguration) {
         if (units == null || teamConfiguration == null || teamConfiguration.factions() == null) {
             return units;
         }
 
         if (teamConfiguration.factions().team1Units() != null
                 && teamConfiguration.factions().team1Units().equals(teamConfiguration.factions().team2Units())) {
-            return new Units(units.team1Units(), units.team1Units());
+            return units.mirrored();
         }
 
         return units;
@@ -1,5 +1,6 @@
 package com.pipemasters.app;
 
+import com.pipemasters.util.WorkerExecutors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -12,31 +13,90 @@ import java.util.regex.Pattern;
 public final class LayerExportArgumentsParser {
     private static final int MIN_ARGS = 1;
     private static final int MAX_ARGS = 2;
+    private static final String THREADS_OPTION = "--threads";
+    private static final String COMPACT_OPTION = "--compact";
+    private static final String GZIP_OPTION = "--gzip";
+    private static final String FORCE_OPTION = "--force";
+    private static final String WATCH_OPTION = "--watch";
+    private static final String UNITS_SOURCE_OPTION = "--units-source";
+    private static final String USAGE = "Usage: java -jar app.jar <path-to-layer-list-txt> [path-to-units-json] [--threads <count>] [--virtual-threads] [--compact] [--gzip] [--force] [--watch [--units-source <faction-setup-dir>]]";
     private static final Pattern TOKEN_PATTERN = Pattern.compile("\"([^\"]*)\"|(\\S+)");
     private static final Logger LOGGER = LogManager.getLogger(LayerExportArgumentsParser.class);
 
     public LayerBatchExportRequest parse(String[] args) {
         int argumentCount = args == null ? 0 : args.length;
         LOGGER.info("Received {} command line argument(s).", argumentCount);
-        if (args == null || argumentCount < MIN_ARGS || argumentCount > MAX_ARGS) {
+
+        List<String> positional = new ArrayList<>();
+        int workerCount = Runtime.getRuntime().availableProcessors();
+        boolean virtualThreads = false;
+        boolean compactOutput = false;
+        boolean gzipOutput = false;
+        boolean force = false;
+        boolean watch = false;
+        Path unitsSourcePath = null;
+        for (int i = 0; i < argumentCount; i++) {
+            String arg = args[i];
+            if (arg.equals(WorkerExecutors.VIRTUAL_THREADS_OPTION)) {
+                virtualThreads = true;
+            } else if (arg.equals(COMPACT_OPTION)) {
+                compactOutput = true;
+            } else if (arg.equals(GZIP_OPTION)) {
+                gzipOutput = true;
+            } else if (arg.equals(FORCE_OPTION)) {
+                force = true;
+            } else if (arg.equals(WATCH_OPTION)) {
+                watch = true;
+            } else if (arg.startsWith(THREADS_OPTION + "=")) {
+                workerCount = parseWorkerCount(arg.substring(THREADS_OPTION.length() + 1));
+            } else if (arg.equals(THREADS_OPTION)) {
+                if (i + 1 >= argumentCount) {
+                    throw new LayerExportException(String.format("Option %s requires a value.%n%s", THREADS_OPTION, USAGE));
+                }
+                workerCount = parseWorkerCount(args[++i]);
+            } else if (arg.startsWith(UNITS_SOURCE_OPTION + "=")) {
+                unitsSourcePath = Path.of(arg.substring(UNITS_SOURCE_OPTION.length() + 1)).toAbsolutePath().normalize();
+            } else if (arg.equals(UNITS_SOURCE_OPTION)) {
+                if (i + 1 >= argumentCount) {
+                    throw new LayerExportException(String.format("Option %s requires a value.%n%s", UNITS_SOURCE_OPTION, USAGE));
+                }
+                unitsSourcePath = Path.of(args[++i]).toAbsolutePath().normalize();
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        if (positional.size() < MIN_ARGS || positional.size() > MAX_ARGS) {
             LOGGER.error(
                     "Invalid number of arguments: {}. Expected between {} and {}.",
-                    argumentCount,
+                    positional.size(),
                     MIN_ARGS,
                     MAX_ARGS);
-            throw new LayerExportException("Usage: java -jar app.jar <path-to-layer-list-txt> [path-to-units-json]");
+            throw new LayerExportException(USAGE);
+        }
+
+        if (unitsSourcePath != null && !watch) {
+            throw new LayerExportException(String.format("Option %s only applies with %s; run UnitsMain to rebuild units once.%n%s", UNITS_SOURCE_OPTION, WATCH_OPTION, USAGE));
         }
 
         Path projectRoot = Path.of("").toAbsolutePath().normalize();
 
-        Path layerListPath = Path.of(args[0]).toAbsolutePath().normalize();
+        Path layerListPath = Path.of(positional.get(0)).toAbsolutePath().normalize();
         Path unitsPath = projectRoot.resolve("output").resolve("units.json");
-        if (args.length == 2) {
-            unitsPath = Path.of(args[1]).toAbsolutePath().normalize();
+        if (positional.size() == 2) {
+            unitsPath = Path.of(positional.get(1)).toAbsolutePath().normalize();
         }
 
-        LOGGER.info("Using layer list '{}' and units path '{}'.", layerListPath, unitsPath);
-        return new LayerBatchExportRequest(projectRoot, layerListPath, unitsPath);
+        LOGGER.info("Using layer list '{}', units path '{}' and {} {}worker thread(s).",
+                layerListPath,
+                unitsPath,
+                workerCount,
+                virtualThreads ? "virtual " : "");
+        LOGGER.info("Writing {} layer JSON{}.", compactOutput ? "compact" : "indented", gzipOutput ? " with .json.gz siblings" : "");
+        if (unitsSourcePath != null) {
+            LOGGER.info("Rebuilding units from '{}' when faction setup data changes.", unitsSourcePath);
+        }
+        return new LayerBatchExportRequest(projectRoot, layerListPath, unitsPath, workerCount, virtualThreads, compactOutput, gzipOutput, force, watch, unitsSourcePath);
     }
 
     public LayerExportRequest parseLayerDefinition(String line, LayerBatchExportRequest batchRequest, int lineNumber) {
@@ -78,6 +138,18 @@ public final class LayerExportArgumentsParser {
         return new LayerExportRequest(batchRequest.projectRoot(), gameplayDataPath, explicitLayerPath, batchRequest.unitsPath());
     }
 
+    private int parseWorkerCount(String value) {
+        try {
+            int count = Integer.parseInt(value.trim());
+            if (count < 1) {
+                throw new LayerExportException(String.format("Worker count must be positive, got %d.", count));
+            }
+            return count;
+        } catch (NumberFormatException e) {
+            throw new LayerExportException(String.format("Worker count '%s' is not a valid number.", value), e);
+        }
+    }
+
     private String[] tokenize(String value) {
         List<String> parts = new ArrayList<>();
         Matcher matcher = TOKEN_PATTERN.matcher(value);
@@ -0,0 +1,21 @@
+package com.pipemasters.app;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pipemasters.gameplay.GameplayDataInfo;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+record LayerExportContext(LayerExportRequest request,
+                          JsonNode gameplayDataRoot,
+                          GameplayDataInfo gameplayDataInfo) {
+    LayerExportContext {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(gameplayDataRoot, "gameplayDataRoot");
+        Objects.requireNonNull(gameplayDataInfo, "gameplayDataInfo");
+    }
+
+    Path gameplayDataPath() {
+        return request.gameplayDataPath();
+    }
+}
@@ -2,5 +2,5 @@ package com.pipemasters.app;
 
 import java.nio.file.Path;
 
-public record LayerExportResult(Path outputPath, String layerVersion) {
+public record LayerExportResult(Path outputPath, String layerVersion, Path layerPath, String layerAssetPath) {
 }
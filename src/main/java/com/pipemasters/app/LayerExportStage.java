@@ -0,0 +1,27 @@
+package com.pipemasters.app;
+
+public enum LayerExportStage {
+    GAMEPLAY_READ("gameplay read"),
+    LAYER_PATH("layer path"),
+    SHARED_SECTIONS("shared sections"),
+    LAYER_TREE("layer tree"),
+    LAYER_SCAN("layer scan"),
+    METADATA("metadata"),
+    ASSETS("assets"),
+    CAPTURE_POINTS("capture points"),
+    OBJECTIVES("objectives"),
+    MAP_ASSETS("map assets"),
+    TEAM_CONFIG("team config"),
+    UNITS("units"),
+    SERIALIZATION("serialization");
+
+    private final String label;
+
+    LayerExportStage(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+}
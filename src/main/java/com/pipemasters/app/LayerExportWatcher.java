@@ -0,0 +1,346 @@
+package com.pipemasters.app;
+
+import com.pipemasters.layer.LayerPathResolver;
+import com.pipemasters.units.UnitsWorkspace;
+import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.WorkerExecutors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+public final class LayerExportWatcher {
+    private static final Logger LOGGER = LogManager.getLogger(LayerExportWatcher.class);
+    private static final String PROPERTY_DEBOUNCE = "watch.debounceMillis";
+    private static final String ENV_DEBOUNCE = "WATCH_DEBOUNCE_MILLIS";
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 500L;
+
+    private final LayerBatchExporter batchExporter;
+    private final UnitsWorkspace unitsWorkspace;
+    private final LayerPathResolver layerPathResolver = new LayerPathResolver();
+    private final long debounceMillis;
+    private final Map<Path, Set<Path>> inputsByGameplayData = new HashMap<>();
+    private final Set<Path> failedGameplayData = new HashSet<>();
+    private final Set<Path> pendingRecursiveRoots = new LinkedHashSet<>();
+    private final Set<Path> pendingFlatDirectories = new LinkedHashSet<>();
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Set<Path> recursiveRoots = new LinkedHashSet<>();
+    private final Set<Path> flatDirectories = new HashSet<>();
+    private Path layerListPath;
+
+    public LayerExportWatcher(LayerBatchExporter batchExporter, UnitsWorkspace unitsWorkspace) {
+        this.batchExporter = Objects.requireNonNull(batchExporter, "batchExporter");
+        this.unitsWorkspace = Objects.requireNonNull(unitsWorkspace, "unitsWorkspace");
+        this.debounceMillis = debounceMillis();
+    }
+
+    public static long debounceMillis() {
+        String value = System.getProperty(PROPERTY_DEBOUNCE);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_DEBOUNCE);
+        }
+        if (value == null || value.isBlank()) {
+            return DEFAULT_DEBOUNCE_MILLIS;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_DEBOUNCE_MILLIS;
+        }
+    }
+
+    public void watch(LayerBatchExportRequest batchRequest) throws IOException {
+        Objects.requireNonNull(batchRequest, "batchRequest");
+        layerListPath = normalize(batchRequest.layerListPath());
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            registerFlat(watchService, layerListPath.getParent());
+            if (batchRequest.unitsSourcePath() != null) {
+                pendingRecursiveRoots.add(normalize(layerPathResolver.resolveExportsRoot(batchRequest.unitsSourcePath())));
+            }
+            runCycle(watchService, batchRequest, request -> true);
+            LayerBatchExportRequest incrementalRequest = withoutForce(batchRequest);
+
+            while (true) {
+                Changes changes = awaitChanges(watchService);
+                if (changes == null) {
+                    return;
+                }
+                if (changes.structural()) {
+                    AssetResolver.revalidateCaches();
+                }
+                if (changes.overflow() || changes.structural() || changes.paths().contains(layerListPath)) {
+                    LOGGER.info("{}; re-checking every layer.", changes.overflow()
+                            ? "File system events were dropped"
+                            : changes.structural() ? "Files were added or removed" : "Layer list changed");
+                    runCycle(watchService, incrementalRequest, request -> true);
+                } else {
+                    LOGGER.info("Detected {} changed file(s).", changes.paths().size());
+                    runCycle(watchService, incrementalRequest, request -> isAffected(request, changes.paths()));
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.info("Stopped watching for changes.");
+        }
+    }
+
+    private void runCycle(WatchService watchService,
+                          LayerBatchExportRequest batchRequest,
+                          Predicate<LayerExportRequest> selection) throws IOException {
+        List<String> layerDefinitions;
+        try {
+            layerDefinitions = Files.readAllLines(batchRequest.layerListPath());
+        } catch (IOException e) {
+            LOGGER.error("Failed to read layer list file '{}': {}", batchRequest.layerListPath(), e.getMessage());
+            return;
+        }
+
+        if (refreshUnits(batchRequest)) {
+            Set<Path> unitsPath = Set.of(normalize(batchRequest.unitsPath()));
+            selection = selection.or(request -> isAffected(request, unitsPath));
+        }
+        LayerBatchExportSummary summary = batchExporter.export(layerDefinitions, batchRequest, selection, this::recordInputs);
+        AssetResolver.flushResolutionCaches();
+        if (summary.processed() == 0 && summary.failed() == 0) {
+            LOGGER.info("No layers depend on the changed files.");
+        } else {
+            LOGGER.info("Processed {} layer definition(s). Successes: {} ({} unchanged). Failures: {}.",
+                    summary.processed(), summary.succeeded(), summary.skipped(), summary.failed());
+        }
+
+        for (Path root : pendingRecursiveRoots) {
+            registerRecursive(watchService, root);
+        }
+        for (Path directory : pendingFlatDirectories) {
+            registerFlat(watchService, directory);
+        }
+        pendingRecursiveRoots.clear();
+        pendingFlatDirectories.clear();
+        LOGGER.info("Watching {} director(ies) for changes. Press Ctrl+C to stop.", watchedDirectories.size());
+    }
+
+    private boolean refreshUnits(LayerBatchExportRequest batchRequest) {
+        if (batchRequest.unitsSourcePath() == null) {
+            return false;
+        }
+        Path unitsPath = normalize(batchRequest.unitsPath());
+        int threads = batchRequest.virtualThreads() ? WorkerExecutors.DEFAULT_VIRTUAL_CONCURRENCY : batchRequest.workerCount();
+        try {
+            FileTime before = lastModified(unitsPath);
+            unitsWorkspace.exportUnits(batchRequest.unitsSourcePath(), unitsPath, threads, batchRequest.virtualThreads(), batchRequest.force());
+            return !Objects.equals(before, lastModified(unitsPath));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to rebuild units JSON '{}' from '{}': {}", unitsPath, batchRequest.unitsSourcePath(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static LayerBatchExportRequest withoutForce(LayerBatchExportRequest batchRequest) {
+        return new LayerBatchExportRequest(batchRequest.projectRoot(),
+                batchRequest.layerListPath(),
+                batchRequest.unitsPath(),
+                batchRequest.workerCount(),
+                batchRequest.virtualThreads(),
+                batchRequest.compactOutput(),
+                batchRequest.gzipOutput(),
+                false,
+                batchRequest.watch(),
+                batchRequest.unitsSourcePath());
+    }
+
+    private static FileTime lastModified(Path path) throws IOException {
+        return Files.exists(path) ? Files.getLastModifiedTime(path) : null;
+    }
+
+    private void recordInputs(LayerExportRequest request, LayerExportResult result) {
+        Path gameplayDataPath = normalize(request.gameplayDataPath());
+        Path exportsRoot = normalize(layerPathResolver.resolveExportsRoot(gameplayDataPath));
+        pendingRecursiveRoots.add(exportsRoot);
+        Set<Path> inputs = new LinkedHashSet<>();
+        inputs.add(gameplayDataPath);
+        if (request.explicitLayerPath() != null) {
+            inputs.add(normalize(request.explicitLayerPath()));
+        }
+        if (result != null && result.layerPath() != null) {
+            inputs.add(normalize(result.layerPath()));
+        }
+        if (request.unitsPath() != null) {
+            inputs.add(normalize(request.unitsPath()));
+        }
+        for (Path input : inputs) {
+            if (!input.startsWith(exportsRoot)) {
+                pendingFlatDirectories.add(input.getParent());
+            }
+        }
+        inputsByGameplayData.put(gameplayDataPath, Set.copyOf(inputs));
+        if (result == null) {
+            failedGameplayData.add(gameplayDataPath);
+        } else {
+            failedGameplayData.remove(gameplayDataPath);
+        }
+    }
+
+    private boolean isAffected(LayerExportRequest request, Set<Path> changedPaths) {
+        Path gameplayDataPath = normalize(request.gameplayDataPath());
+        if (failedGameplayData.contains(gameplayDataPath)) {
+            return true;
+        }
+        Set<Path> inputs = inputsByGameplayData.get(gameplayDataPath);
+        if (inputs == null) {
+            return true;
+        }
+        for (Path input : inputs) {
+            if (changedPaths.contains(input)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Changes awaitChanges(WatchService watchService) throws IOException {
+        PendingChanges pending = new PendingChanges();
+        try {
+            while (true) {
+                collect(watchService, watchService.take(), pending);
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(watchService, key, pending);
+                }
+                if (pending.overflow || isRelevant(pending.paths)) {
+                    return new Changes(Set.copyOf(pending.paths), pending.structural, pending.overflow);
+                }
+                LOGGER.debug("Ignoring {} change(s) outside the watched inputs.", pending.paths.size());
+                pending = new PendingChanges();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void collect(WatchService watchService, WatchKey key, PendingChanges pending) throws IOException {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                pending.overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path changed = directory.resolve((Path) event.context());
+            pending.paths.add(changed);
+            if (event.kind() != StandardWatchEventKinds.ENTRY_MODIFY && !flatDirectories.contains(directory)) {
+                pending.structural = true;
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                    registerTree(watchService, changed);
+                }
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private boolean isRelevant(Set<Path> paths) {
+        for (Path path : paths) {
+            if (!flatDirectories.contains(path.getParent()) || path.equals(layerListPath)) {
+                return true;
+            }
+            for (Set<Path> inputs : inputsByGameplayData.values()) {
+                if (inputs.contains(path)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void registerRecursive(WatchService watchService, Path root) throws IOException {
+        Path normalized = normalize(root);
+        for (Path existing : recursiveRoots) {
+            if (normalized.startsWith(existing)) {
+                return;
+            }
+        }
+        if (!Files.isDirectory(normalized)) {
+            return;
+        }
+        recursiveRoots.add(normalized);
+        flatDirectories.removeIf(directory -> directory.startsWith(normalized));
+        LOGGER.info("Registering exports root '{}' for change notifications.", normalized);
+        registerTree(watchService, normalized);
+    }
+
+    private void registerFlat(WatchService watchService, Path directory) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        Path normalized = normalize(directory);
+        for (Path root : recursiveRoots) {
+            if (normalized.startsWith(root)) {
+                return;
+            }
+        }
+        if (Files.isDirectory(normalized) && flatDirectories.add(normalized)) {
+            register(watchService, normalized);
+        }
+    }
+
+    private void registerTree(WatchService watchService, Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                register(watchService, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                LOGGER.debug("Unable to watch '{}': {}", file, exc.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(WatchService watchService, Path directory) throws IOException {
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        watchedDirectories.put(key, directory);
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private record Changes(Set<Path> paths, boolean structural, boolean overflow) {
+    }
+
+    private static final class PendingChanges {
+        private final Set<Path> paths = new HashSet<>();
+        private boolean structural;
+        private boolean overflow;
+    }
+}
@@ -0,0 +1,216 @@
+package com.pipemasters.app;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pipemasters.assets.Assets;
+import com.pipemasters.capture.CapturePoints;
+import com.pipemasters.layer.LayerMetadata;
+import com.pipemasters.mapassets.MapAssets;
+import com.pipemasters.model.LayerTeamConfiguration;
+import com.pipemasters.objectives.Objective;
+import com.pipemasters.units.Units;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+public final class LayerOutputWriter {
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final boolean compact;
+    private final boolean gzip;
+
+    public LayerOutputWriter(ObjectMapper mapper, boolean compact, boolean gzip) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        ObjectWriter baseWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.writer = compact
+                ? baseWriter.without(SerializationFeature.INDENT_OUTPUT)
+                : baseWriter.with(SerializationFeature.INDENT_OUTPUT);
+        this.compact = compact;
+        this.gzip = gzip;
+    }
+
+    public Session open(Path outputPath) throws IOException {
+        return new Session(outputPath.toAbsolutePath().normalize());
+    }
+
+    public final class Session implements Closeable {
+        private final Path outputPath;
+        private final Path gzipPath;
+        private final Path tempPath;
+        private final Path gzipTempPath;
+        private final JsonGenerator generator;
+        private boolean committed;
+        private boolean closed;
+
+        private Session(Path outputPath) throws IOException {
+            this.outputPath = outputPath;
+            this.gzipPath = outputPath.resolveSibling(outputPath.getFileName() + GZIP_EXTENSION);
+            this.tempPath = tempSibling(outputPath);
+            this.gzipTempPath = gzip ? tempSibling(gzipPath) : null;
+            OutputStream out = null;
+            try {
+                out = Files.newOutputStream(tempPath);
+                if (gzipTempPath != null) {
+                    out = new TeeOutputStream(out, new GZIPOutputStream(Files.newOutputStream(gzipTempPath), GZIP_BUFFER_SIZE));
+                }
+                this.generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+                if (!compact) {
+                    generator.useDefaultPrettyPrinter();
+                }
+                generator.writeStartObject();
+            } catch (IOException | RuntimeException e) {
+                if (out != null) {
+                    out.close();
+                }
+                Files.deleteIfExists(tempPath);
+                if (gzipTempPath != null) {
+                    Files.deleteIfExists(gzipTempPath);
+                }
+                throw e;
+            }
+        }
+
+        public void writeMetadata(LayerMetadata metadata) throws IOException {
+            writeField("rawName", metadata.rawName());
+            writeField("mapId", metadata.mapId());
+            writeField("mapName", metadata.mapName());
+            writeField("gamemode", metadata.gamemode());
+            writeField("layerVersion", metadata.layerVersion());
+            writeField("seaLevel", metadata.seaLevel());
+            writeField("mapCameraActor", metadata.mapCameraActor());
+            writeField("border", metadata.border());
+            writeField("mapTextureCorners", metadata.mapTextureCorners());
+        }
+
+        public void writeAssets(Assets assets) throws IOException {
+            writeField("assets", assets);
+        }
+
+        public void writeCapturePoints(CapturePoints capturePoints) throws IOException {
+            writeField("capturePoints", capturePoints);
+        }
+
+        public void writeObjectives(Map<String, Objective> objectives) throws IOException {
+            writeField("objectives", objectives);
+        }
+
+        public void writeMapAssets(MapAssets mapAssets) throws IOException {
+            writeField("mapAssets", mapAssets);
+        }
+
+        public void writeTeamConfigs(LayerTeamConfiguration teamConfigs) throws IOException {
+            if (teamConfigs != null) {
+                writeField("teamConfigs", teamConfigs);
+            }
+        }
+
+        public void writeUnits(Units units) throws IOException {
+            if (units != null) {
+                writeField("units", units);
+            }
+        }
+
+        public void commit() throws IOException {
+            generator.writeEndObject();
+            closeGenerator();
+            move(tempPath, outputPath);
+            if (gzipTempPath != null) {
+                move(gzipTempPath, gzipPath);
+            } else {
+                Files.deleteIfExists(gzipPath);
+            }
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            try {
+                closeGenerator();
+            } finally {
+                Files.deleteIfExists(tempPath);
+                if (gzipTempPath != null) {
+                    Files.deleteIfExists(gzipTempPath);
+                }
+            }
+        }
+
+        private void writeField(String name, Object value) throws IOException {
+            generator.writeFieldName(name);
+            writer.writeValue(generator, value);
+        }
+
+        private void closeGenerator() throws IOException {
+            if (!closed) {
+                closed = true;
+                generator.close();
+            }
+        }
+
+        private static Path tempSibling(Path path) {
+            return path.resolveSibling(path.getFileName() + "." + Thread.currentThread().threadId() + TEMP_EXTENSION);
+        }
+
+        private void move(Path source, Path target) throws IOException {
+            try {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        private TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                first.close();
+            } finally {
+                second.close();
+            }
+        }
+    }
+}
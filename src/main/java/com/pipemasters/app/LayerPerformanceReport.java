@@ -0,0 +1,100 @@
+package com.pipemasters.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+final class LayerPerformanceReport {
+    static final String FILE_NAME = "layer-timings.json";
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final LayerExportStage[] STAGES = LayerExportStage.values();
+    private static final int SLOWEST_LAYERS = 10;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+
+    void add(int lineNumber, String layer, LayerStageTimer.Timings timings) {
+        samples.add(new Sample(lineNumber, layer, timings));
+    }
+
+    LayerPerformanceSummary summarize() {
+        List<Sample> layers = new ArrayList<>(samples);
+        if (layers.isEmpty()) {
+            return LayerPerformanceSummary.empty();
+        }
+        boolean allocationTracked = layers.stream().allMatch(sample -> sample.timings().bytes() != null);
+
+        List<LayerPerformanceSummary.StageStatistics> stages = new ArrayList<>(STAGES.length);
+        for (LayerExportStage stage : STAGES) {
+            int index = stage.ordinal();
+            long[] nanos = layers.stream().mapToLong(sample -> sample.timings().nanos()[index]).sorted().toArray();
+            long[] bytes = allocationTracked
+                    ? layers.stream().mapToLong(sample -> sample.timings().bytes()[index]).sorted().toArray()
+                    : null;
+            stages.add(new LayerPerformanceSummary.StageStatistics(
+                    stage.label(),
+                    millis(nanos[0]),
+                    millis(percentile(nanos, 0.50)),
+                    millis(percentile(nanos, 0.95)),
+                    millis(nanos[nanos.length - 1]),
+                    millis(Arrays.stream(nanos).sum()),
+                    bytes != null ? bytes[0] : null,
+                    bytes != null ? percentile(bytes, 0.50) : null,
+                    bytes != null ? percentile(bytes, 0.95) : null,
+                    bytes != null ? bytes[bytes.length - 1] : null));
+        }
+
+        List<LayerPerformanceSummary.LayerTiming> slowest = layers.stream()
+                .sorted(Comparator.comparingLong((Sample sample) -> sample.timings().totalNanos()).reversed())
+                .limit(SLOWEST_LAYERS)
+                .map(LayerPerformanceReport::layerTiming)
+                .toList();
+        return new LayerPerformanceSummary(layers.size(), allocationTracked, List.copyOf(stages), slowest);
+    }
+
+    static void write(Path outputDir, LayerPerformanceSummary summary) throws IOException {
+        Files.createDirectories(outputDir);
+        Path target = outputDir.resolve(FILE_NAME);
+        Path temp = target.resolveSibling(FILE_NAME + ".tmp");
+        MAPPER.writeValue(temp.toFile(), summary);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static LayerPerformanceSummary.LayerTiming layerTiming(Sample sample) {
+        long[] nanos = sample.timings().nanos();
+        int slowestStage = 0;
+        for (int i = 1; i < nanos.length; i++) {
+            if (nanos[i] > nanos[slowestStage]) {
+                slowestStage = i;
+            }
+        }
+        return new LayerPerformanceSummary.LayerTiming(
+                sample.lineNumber(),
+                sample.layer(),
+                millis(sample.timings().totalNanos()),
+                sample.timings().totalBytes(),
+                STAGES[slowestStage].label(),
+                millis(nanos[slowestStage]));
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 100.0) / 100.0;
+    }
+
+    private record Sample(int lineNumber, String layer, LayerStageTimer.Timings timings) {
+    }
+}
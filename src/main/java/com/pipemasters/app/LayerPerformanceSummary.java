@@ -0,0 +1,69 @@
+package com.pipemasters.app;
+
+import java.util.List;
+import java.util.Locale;
+
+public record LayerPerformanceSummary(int layers,
+                                      boolean allocationTracked,
+                                      List<StageStatistics> stages,
+                                      List<LayerTiming> slowestLayers) {
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    public static LayerPerformanceSummary empty() {
+        return new LayerPerformanceSummary(0, false, List.of(), List.of());
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "%-16s %10s %10s %10s %10s %11s %12s %10s%n",
+                "stage", "min ms", "median ms", "p95 ms", "max ms", "total ms", "median MB", "max MB"));
+        for (StageStatistics stage : stages) {
+            table.append(String.format(Locale.ROOT, "%-16s %10.1f %10.1f %10.1f %10.1f %11.1f %12s %10s%n",
+                    stage.stage(),
+                    stage.minMillis(),
+                    stage.medianMillis(),
+                    stage.p95Millis(),
+                    stage.maxMillis(),
+                    stage.totalMillis(),
+                    megabytes(stage.medianBytes()),
+                    megabytes(stage.maxBytes())));
+        }
+        table.append(String.format(Locale.ROOT, "Slowest %d of %d layer(s):", slowestLayers.size(), layers));
+        for (int i = 0; i < slowestLayers.size(); i++) {
+            LayerTiming layer = slowestLayers.get(i);
+            table.append(String.format(Locale.ROOT, "%n%3d. %10.1f ms %10s MB  %s (line %d, slowest stage: %s %.1f ms)",
+                    i + 1,
+                    layer.totalMillis(),
+                    megabytes(layer.allocatedBytes()),
+                    layer.layer(),
+                    layer.line(),
+                    layer.slowestStage(),
+                    layer.slowestStageMillis()));
+        }
+        return table.toString();
+    }
+
+    private static String megabytes(Long bytes) {
+        return bytes != null ? String.format(Locale.ROOT, "%.1f", bytes / BYTES_PER_MEGABYTE) : "-";
+    }
+
+    public record StageStatistics(String stage,
+                                  double minMillis,
+                                  double medianMillis,
+                                  double p95Millis,
+                                  double maxMillis,
+                                  double totalMillis,
+                                  Long minBytes,
+                                  Long medianBytes,
+                                  Long p95Bytes,
+                                  Long maxBytes) {
+    }
+
+    public record LayerTiming(int line,
+                              String layer,
+                              double totalMillis,
+                              Long allocatedBytes,
+                              String slowestStage,
+                              double slowestStageMillis) {
+    }
+}
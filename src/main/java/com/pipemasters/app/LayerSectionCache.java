@@ -0,0 +1,121 @@
+package com.pipemasters.app;
+
+import com.pipemasters.assets.Assets;
+import com.pipemasters.capture.CapturePoints;
+import com.pipemasters.layer.LayerMetadata;
+import com.pipemasters.layerdata.GameMode;
+import com.pipemasters.mapassets.MapAssets;
+import com.pipemasters.objectives.Objective;
+import com.pipemasters.util.FileFingerprints;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class LayerSectionCache {
+    private static final Logger LOGGER = LogManager.getLogger(LayerSectionCache.class);
+    private static final String PROPERTY_ENABLED = "layers.shareSections";
+    private static final String ENV_ENABLED = "LAYERS_SHARE_SECTIONS";
+
+    private final FileFingerprints fingerprints;
+    private final Map<Key, CompletableFuture<LayerSections>> sections = new ConcurrentHashMap<>();
+    private final AtomicInteger reused = new AtomicInteger();
+
+    LayerSectionCache(FileFingerprints fingerprints) {
+        this.fingerprints = Objects.requireNonNull(fingerprints, "fingerprints");
+    }
+
+    private LayerSectionCache() {
+        this.fingerprints = null;
+    }
+
+    static LayerSectionCache disabled() {
+        return new LayerSectionCache();
+    }
+
+    static boolean isEnabled() {
+        String value = System.getProperty(PROPERTY_ENABLED);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_ENABLED);
+        }
+        return value == null || value.isBlank() || !(value.trim().equalsIgnoreCase("false") || value.trim().equals("0"));
+    }
+
+    LayerSections get(Path layerJsonPath, GameMode gameMode, Loader loader) throws IOException {
+        if (fingerprints == null) {
+            return loader.load();
+        }
+        Path normalized = layerJsonPath.toAbsolutePath().normalize();
+        Key key = new Key(normalized, fingerprints.fingerprint(normalized).sha256(), gameMode);
+        if (key.sha256() == null) {
+            return loader.load();
+        }
+
+        CompletableFuture<LayerSections> loading = new CompletableFuture<>();
+        CompletableFuture<LayerSections> existing = sections.putIfAbsent(key, loading);
+        if (existing != null) {
+            LayerSections cached = await(existing);
+            reused.incrementAndGet();
+            LOGGER.debug("Reusing {} sections of layer '{}' computed for an earlier entry.", gameMode, normalized);
+            return cached;
+        }
+
+        try {
+            LayerSections computed = loader.load();
+            loading.complete(computed);
+            return computed;
+        } catch (Throwable e) {
+            sections.remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int reusedCount() {
+        return reused.get();
+    }
+
+    private LayerSections await(CompletableFuture<LayerSections> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shared layer sections", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        LayerSections load() throws IOException;
+    }
+
+    record LayerSections(LayerMetadata metadata,
+                         Assets assets,
+                         CapturePoints capturePoints,
+                         Map<String, Objective> objectives,
+                         MapAssets mapAssets) {
+    }
+
+    private record Key(Path layerJsonPath, String sha256, GameMode gameMode) {
+    }
+}
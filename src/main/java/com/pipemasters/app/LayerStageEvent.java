@@ -0,0 +1,27 @@
+package com.pipemasters.app;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.pipemasters.LayerStage")
+@Label("Layer Export Stage")
+@Category({"FModelToSC", "Layers"})
+@Description("One uninterrupted span of a layer export stage; stages resumed later, such as units and serialization, emit one event per span")
+@StackTrace(false)
+final class LayerStageEvent extends Event {
+    @Label("Gameplay Data")
+    String gameplayData;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the exporting thread; -1 on virtual threads")
+    @DataAmount
+    long allocated;
+}
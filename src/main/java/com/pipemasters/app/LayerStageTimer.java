@@ -0,0 +1,87 @@
+package com.pipemasters.app;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+final class LayerStageTimer {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    private static final LayerExportStage[] STAGES = LayerExportStage.values();
+
+    private final String gameplayData;
+    private final long[] nanos = new long[STAGES.length];
+    private final long[] bytes = new long[STAGES.length];
+    private LayerExportStage current;
+    private LayerStageEvent event;
+    private long startedNanos;
+    private long startedBytes;
+    private boolean allocationTracked = THREADS != null;
+
+    LayerStageTimer(Path gameplayDataPath) {
+        this.gameplayData = gameplayDataPath != null ? gameplayDataPath.toString() : null;
+    }
+
+    void start(LayerExportStage stage) {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        close(now, allocated);
+        current = stage;
+        startedNanos = now;
+        startedBytes = allocated;
+        event = new LayerStageEvent();
+        event.begin();
+    }
+
+    void stop() {
+        close(System.nanoTime(), allocatedBytes());
+        current = null;
+    }
+
+    Timings timings() {
+        return new Timings(nanos.clone(), allocationTracked ? bytes.clone() : null);
+    }
+
+    private void close(long now, long allocated) {
+        if (current == null) {
+            return;
+        }
+        nanos[current.ordinal()] += now - startedNanos;
+        long stageBytes = allocated >= 0 && startedBytes >= 0 ? allocated - startedBytes : -1;
+        if (stageBytes < 0) {
+            allocationTracked = false;
+        } else {
+            bytes[current.ordinal()] += stageBytes;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.gameplayData = gameplayData;
+            event.stage = current.label();
+            event.allocated = stageBytes;
+            event.commit();
+        }
+    }
+
+    private long allocatedBytes() {
+        // Virtual threads report -1; allocations are then left out of the summary.
+        return allocationTracked ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()
+                && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    record Timings(long[] nanos, long[] bytes) {
+        long totalNanos() {
+            return Arrays.stream(nanos).sum();
+        }
+
+        Long totalBytes() {
+            return bytes != null ? Arrays.stream(bytes).sum() : null;
+        }
+    }
+}
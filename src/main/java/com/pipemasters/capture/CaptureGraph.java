@@ -0,0 +1,251 @@
+package com.pipemasters.capture;
+
+import java.util.*;
+
+final class CaptureGraph {
+    private static final int CYCLE_NODES_REPORTED = 5;
+
+    private final List<String> names;
+    private final int[] outgoingStart;
+    private final int[] outgoing;
+    private final int[] incomingStart;
+    private final int[] incoming;
+
+    private CaptureGraph(List<String> names, int[] outgoingStart, int[] outgoing, int[] incomingStart, int[] incoming) {
+        this.names = names;
+        this.outgoingStart = outgoingStart;
+        this.outgoing = outgoing;
+        this.incomingStart = incomingStart;
+        this.incoming = incoming;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    int start() {
+        for (int node = 0; node < names.size(); node++) {
+            if (incomingStart[node] == incomingStart[node + 1]) {
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    int end() {
+        for (int node = 0; node < names.size(); node++) {
+            if (outgoingStart[node] == outgoingStart[node + 1]) {
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    List<List<String>> simplePaths(int start, int end, int maxPaths) {
+        if (start < 0 || end < 0) {
+            return List.of();
+        }
+        boolean[] toEnd = reachable(end, incomingStart, incoming);
+        if (!toEnd[start]) {
+            return List.of();
+        }
+        List<List<String>> paths = new ArrayList<>();
+        int[] path = new int[names.size()];
+        int[] cursor = new int[names.size()];
+        boolean[] onPath = new boolean[names.size()];
+        int depth = 0;
+        path[0] = start;
+        cursor[0] = outgoingStart[start];
+        onPath[start] = true;
+        while (depth >= 0) {
+            int node = path[depth];
+            if (node == end) {
+                if (paths.size() == maxPaths) {
+                    throw new IllegalStateException(String.format(
+                            "Capture point graph from '%s' to '%s' has more than %d start-to-end paths; raise capture.maxPaths (CAPTURE_MAX_PATHS) to allow more",
+                            names.get(start), names.get(end), maxPaths));
+                }
+                List<String> nodes = new ArrayList<>(depth + 1);
+                for (int i = 0; i <= depth; i++) {
+                    nodes.add(names.get(path[i]));
+                }
+                paths.add(nodes);
+                onPath[node] = false;
+                depth--;
+                continue;
+            }
+            if (cursor[depth] == outgoingStart[node + 1]) {
+                onPath[node] = false;
+                depth--;
+                continue;
+            }
+            int next = outgoing[cursor[depth]++];
+            if (toEnd[next] && !onPath[next]) {
+                depth++;
+                path[depth] = next;
+                cursor[depth] = outgoingStart[next];
+                onPath[next] = true;
+            }
+        }
+        return paths;
+    }
+
+    List<String> firstPath(int start, int end) {
+        boolean[] onPath = relevantNodes(start, end);
+        int[] order = topologicalOrder(start, end, onPath);
+        if (order.length == 0) {
+            return List.of();
+        }
+        List<String> path = new ArrayList<>();
+        int node = start;
+        path.add(names.get(node));
+        while (node != end) {
+            int next = -1;
+            for (int i = outgoingStart[node]; i < outgoingStart[node + 1]; i++) {
+                if (onPath[outgoing[i]]) {
+                    next = outgoing[i];
+                    break;
+                }
+            }
+            node = next;
+            path.add(names.get(node));
+        }
+        return path;
+    }
+
+    private int[] topologicalOrder(int start, int end, boolean[] relevant) {
+        if (start < 0 || end < 0 || !relevant[start]) {
+            return new int[0];
+        }
+        int relevantCount = 0;
+        int[] pendingIncoming = new int[names.size()];
+        for (int node = 0; node < names.size(); node++) {
+            if (!relevant[node]) {
+                continue;
+            }
+            relevantCount++;
+            for (int i = incomingStart[node]; i < incomingStart[node + 1]; i++) {
+                if (relevant[incoming[i]]) {
+                    pendingIncoming[node]++;
+                }
+            }
+        }
+
+        int[] order = new int[relevantCount];
+        int head = 0;
+        int tail = 0;
+        if (pendingIncoming[start] == 0) {
+            order[tail++] = start;
+        }
+        while (head < tail) {
+            int node = order[head++];
+            for (int i = outgoingStart[node]; i < outgoingStart[node + 1]; i++) {
+                int next = outgoing[i];
+                if (relevant[next] && --pendingIncoming[next] == 0) {
+                    order[tail++] = next;
+                }
+            }
+        }
+        if (tail < relevantCount) {
+            List<String> cyclic = new ArrayList<>();
+            for (int node = 0; node < names.size() && cyclic.size() < CYCLE_NODES_REPORTED; node++) {
+                if (relevant[node] && pendingIncoming[node] > 0) {
+                    cyclic.add(names.get(node));
+                }
+            }
+            throw new IllegalStateException(String.format(
+                    "Capture point graph from '%s' to '%s' contains a cycle; %d node(s) on or after it could not be ordered, starting with %s",
+                    names.get(start), names.get(end), relevantCount - tail, cyclic));
+        }
+        return order;
+    }
+
+    private boolean[] relevantNodes(int start, int end) {
+        if (start < 0 || end < 0) {
+            return new boolean[names.size()];
+        }
+        boolean[] fromStart = reachable(start, outgoingStart, outgoing);
+        boolean[] toEnd = reachable(end, incomingStart, incoming);
+        boolean[] relevant = new boolean[names.size()];
+        for (int node = 0; node < relevant.length; node++) {
+            relevant[node] = fromStart[node] && toEnd[node];
+        }
+        return relevant;
+    }
+
+    private boolean[] reachable(int origin, int[] edgeStart, int[] edges) {
+        boolean[] seen = new boolean[names.size()];
+        int[] queue = new int[names.size()];
+        int head = 0;
+        int tail = 0;
+        seen[origin] = true;
+        queue[tail++] = origin;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = edgeStart[node]; i < edgeStart[node + 1]; i++) {
+                if (!seen[edges[i]]) {
+                    seen[edges[i]] = true;
+                    queue[tail++] = edges[i];
+                }
+            }
+        }
+        return seen;
+    }
+
+    static final class Builder {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int edgeCount;
+
+        private Builder() {
+        }
+
+        Builder link(String nodeA, String nodeB) {
+            int source = index(nodeA);
+            int target = index(nodeB);
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+            }
+            sources[edgeCount] = source;
+            targets[edgeCount] = target;
+            edgeCount++;
+            return this;
+        }
+
+        CaptureGraph build() {
+            int nodeCount = names.size();
+            int[] outgoingStart = offsets(sources, nodeCount);
+            int[] incomingStart = offsets(targets, nodeCount);
+            int[] outgoing = new int[edgeCount];
+            int[] incoming = new int[edgeCount];
+            int[] outgoingNext = Arrays.copyOf(outgoingStart, nodeCount);
+            int[] incomingNext = Arrays.copyOf(incomingStart, nodeCount);
+            for (int edge = 0; edge < edgeCount; edge++) {
+                outgoing[outgoingNext[sources[edge]]++] = targets[edge];
+                incoming[incomingNext[targets[edge]]++] = sources[edge];
+            }
+            return new CaptureGraph(List.copyOf(names), outgoingStart, outgoing, incomingStart, incoming);
+        }
+
+        private int index(String name) {
+            return indices.computeIfAbsent(name, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+
+        private int[] offsets(int[] endpoints, int nodeCount) {
+            int[] start = new int[nodeCount + 1];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                start[endpoints[edge] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                start[node + 1] += start[node];
+            }
+            return start;
+        }
+    }
+}
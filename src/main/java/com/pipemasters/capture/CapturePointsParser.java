@@ -2,6 +2,9 @@ package com.pipemasters.capture;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.layer.LayerNodeVisitor;
+import com.pipemasters.layer.LayerScanner;
+import com.pipemasters.util.JsonFileInput;
 import com.pipemasters.util.MainNameFormatter;
 import com.pipemasters.layerdata.GameMode;
 
@@ -11,6 +14,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class CapturePointsParser {
+    private static final String PROPERTY_MAX_PATHS = "capture.maxPaths";
+    private static final String ENV_MAX_PATHS = "CAPTURE_MAX_PATHS";
+    private static final int DEFAULT_MAX_PATHS = 10_000;
+
     private final ObjectMapper objectMapper;
 
     public CapturePointsParser(ObjectMapper objectMapper) {
@@ -22,7 +29,7 @@ public class CapturePointsParser {
     }
 
     public CapturePoints parseCapturePoints(Path exportPath, GameMode gameMode) throws IOException {
-        JsonNode root = objectMapper.readTree(exportPath.toFile());
+        JsonNode root = JsonFileInput.readTree(objectMapper, exportPath);
         return parseCapturePoints(root, gameMode);
     }
 
@@ -31,48 +38,55 @@ public class CapturePointsParser {
             throw new IllegalArgumentException("FModel export is expected to be a JSON array of objects");
         }
 
+        Scan scan = newScan();
+        LayerScanner.scan(root, scan);
+        return parseCapturePoints(scan, gameMode);
+    }
+
+    public Scan newScan() {
+        return new Scan();
+    }
+
+    public CapturePoints parseCapturePoints(Scan scan, GameMode gameMode) {
+        Objects.requireNonNull(scan, "scan");
         GameMode mode = gameMode == null ? GameMode.UNKNOWN : gameMode;
 
         if (mode == GameMode.RAAS) {
-            JsonNode laneInitializer = findLaneInitializerNode(root);
+            JsonNode laneInitializer = scan.laneInitializer;
             if (laneInitializer != null) {
                 return parseRaasLaneGraph(laneInitializer);
             }
         }
 
-        JsonNode initializerNode = findInitializerNode(root, mode);
+        JsonNode initializerNode = findInitializerNode(scan, mode);
         JsonNode designOutgoingLinks = initializerNode.path("Properties").path("DesignOutgoingLinks");
         if (!designOutgoingLinks.isArray()) {
             throw new IllegalStateException("DesignOutgoingLinks array is missing in the initializer component");
         }
 
         List<RawLink> rawLinks = new ArrayList<>();
-        Map<String, List<String>> adjacency = new LinkedHashMap<>();
-        Set<String> allNodes = new LinkedHashSet<>();
-        Set<String> incomingNodes = new HashSet<>();
-        Set<String> outgoingNodes = new HashSet<>();
+        CaptureGraph.Builder graphBuilder = CaptureGraph.builder();
 
         for (int i = 0; i < designOutgoingLinks.size(); i++) {
             JsonNode linkNode = designOutgoingLinks.get(i);
             String nodeA = extractNodeName(linkNode.path("NodeA").path("ObjectName").asText());
             String nodeB = extractNodeName(linkNode.path("NodeB").path("ObjectName").asText());
 
-            allNodes.add(nodeA);
-            allNodes.add(nodeB);
-            incomingNodes.add(nodeB);
-            outgoingNodes.add(nodeA);
-
-            adjacency.computeIfAbsent(nodeA, key -> new ArrayList<>()).add(nodeB);
-            adjacency.putIfAbsent(nodeB, new ArrayList<>());
-
+            graphBuilder.link(nodeA, nodeB);
             rawLinks.add(new RawLink("Link" + i, nodeA, nodeB));
         }
 
-        String startNode = allNodes.stream().filter(node -> !incomingNodes.contains(node)).findFirst().orElseThrow(() -> new IllegalStateException("Unable to determine graph start node"));
-
-        String endNode = allNodes.stream().filter(node -> !outgoingNodes.contains(node)).findFirst().orElseThrow(() -> new IllegalStateException("Unable to determine graph end node"));
+        CaptureGraph graph = graphBuilder.build();
+        int startNode = graph.start();
+        if (startNode < 0) {
+            throw new IllegalStateException("Unable to determine graph start node");
+        }
+        int endNode = graph.end();
+        if (endNode < 0) {
+            throw new IllegalStateException("Unable to determine graph end node");
+        }
 
-        List<List<String>> paths = findAllPaths(startNode, endNode, adjacency);
+        List<List<String>> paths = new ArrayList<>(graph.simplePaths(startNode, endNode, maxPaths()));
         if (paths.isEmpty()) {
             throw new IllegalStateException("No capture point paths could be derived from the graph definition");
         }
@@ -189,35 +203,26 @@ public class CapturePointsParser {
     }
 
     private List<String> buildPointsOrderFromLinks(List<RawLink> laneLinks) {
-        Map<String, List<String>> adjacency = new LinkedHashMap<>();
-        Set<String> incomingNodes = new HashSet<>();
-        Set<String> outgoingNodes = new HashSet<>();
-
+        CaptureGraph.Builder graphBuilder = CaptureGraph.builder();
         for (RawLink link : laneLinks) {
-            adjacency.computeIfAbsent(link.nodeA(), key -> new ArrayList<>()).add(link.nodeB());
-            incomingNodes.add(link.nodeB());
-            outgoingNodes.add(link.nodeA());
-            adjacency.putIfAbsent(link.nodeB(), new ArrayList<>());
+            graphBuilder.link(link.nodeA(), link.nodeB());
         }
 
-        String startNode = adjacency.keySet().stream().filter(node -> !incomingNodes.contains(node)).findFirst().orElseThrow(() -> new IllegalStateException("Unable to determine lane start node"));
-
-        String endNode = adjacency.keySet().stream().filter(node -> !outgoingNodes.contains(node)).findFirst().orElseThrow(() -> new IllegalStateException("Unable to determine lane end node"));
-
-        List<List<String>> paths = findAllPaths(startNode, endNode, adjacency);
-        if (paths.isEmpty()) {
-            throw new IllegalStateException("No lane path could be derived from the RAAS graph definition");
+        CaptureGraph graph = graphBuilder.build();
+        int startNode = graph.start();
+        if (startNode < 0) {
+            throw new IllegalStateException("Unable to determine lane start node");
+        }
+        int endNode = graph.end();
+        if (endNode < 0) {
+            throw new IllegalStateException("Unable to determine lane end node");
         }
-        return paths.get(0);
-    }
 
-    private JsonNode findLaneInitializerNode(JsonNode root) {
-        for (JsonNode node : root) {
-            if ("SQRAASLaneInitializer_C".equals(node.path("Type").asText())) {
-                return node;
-            }
+        List<String> path = graph.firstPath(startNode, endNode);
+        if (path.isEmpty()) {
+            throw new IllegalStateException("No lane path could be derived from the RAAS graph definition");
         }
-        return null;
+        return path;
     }
 
     private JsonNode findLaneLinksArray(JsonNode laneNode) {
@@ -248,21 +253,68 @@ public class CapturePointsParser {
         return null;
     }
 
-    private JsonNode findInitializerNode(JsonNode root, GameMode gameMode) {
-        List<String> supportedInitializers = switch (gameMode) {
-            case RAAS -> List.of("SQGraphRAASInitializerComponent");
-            case AAS -> List.of("SQGraphAASInitializerComponent");
-            default -> List.of("SQGraphRAASInitializerComponent", "SQGraphAASInitializerComponent");
+    private JsonNode findInitializerNode(Scan scan, GameMode gameMode) {
+        JsonNode node = switch (gameMode) {
+            case RAAS -> scan.raasInitializer;
+            case AAS -> scan.aasInitializer;
+            default -> scan.firstInitializer;
         };
+        if (node != null) {
+            return node;
+        }
+
+        throw new IllegalStateException("Unable to locate a graph initializer component in the export for gamemode: " + gameMode);
+    }
+
+    public static final class Scan implements LayerNodeVisitor {
+        private static final Set<String> NODE_TYPES = Set.of(
+                "SQRAASLaneInitializer_C",
+                "SQGraphRAASInitializerComponent",
+                "SQGraphAASInitializerComponent");
 
-        for (JsonNode node : root) {
-            String type = node.path("Type").asText();
-            if (supportedInitializers.contains(type)) {
-                return node;
+        private JsonNode laneInitializer;
+        private JsonNode raasInitializer;
+        private JsonNode aasInitializer;
+        private JsonNode firstInitializer;
+
+        private Scan() {
+        }
+
+        @Override
+        public Set<String> nodeTypes() {
+            return NODE_TYPES;
+        }
+
+        @Override
+        public void visit(String type, JsonNode node) {
+            switch (type) {
+                case "SQRAASLaneInitializer_C" -> {
+                    if (laneInitializer == null) {
+                        laneInitializer = node;
+                    }
+                }
+                case "SQGraphRAASInitializerComponent" -> {
+                    if (raasInitializer == null) {
+                        raasInitializer = node;
+                    }
+                    recordInitializer(node);
+                }
+                case "SQGraphAASInitializerComponent" -> {
+                    if (aasInitializer == null) {
+                        aasInitializer = node;
+                    }
+                    recordInitializer(node);
+                }
+                default -> {
+                }
             }
         }
 
-        throw new IllegalStateException("Unable to locate a graph initializer component in the export for gamemode: " + gameMode);
+        private void recordInitializer(JsonNode node) {
+            if (firstInitializer == null) {
+                firstInitializer = node;
+            }
+        }
     }
 
     private String extractNodeName(String objectName) {
@@ -287,30 +339,6 @@ public class CapturePointsParser {
         return rawName;
     }
 
-    private List<List<String>> findAllPaths(String start, String end, Map<String, List<String>> adjacency) {
-        List<List<String>> paths = new ArrayList<>();
-        Deque<String> currentPath = new ArrayDeque<>();
-        Set<String> visited = new HashSet<>();
-        depthFirstSearch(start, end, adjacency, currentPath, visited, paths);
-        return paths;
-    }
-
-    private void depthFirstSearch(String current, String target, Map<String, List<String>> adjacency, Deque<String> currentPath, Set<String> visited, List<List<String>> result) {
-        currentPath.addLast(current);
-        if (current.equals(target)) {
-            result.add(new ArrayList<>(currentPath));
-        } else {
-            visited.add(current);
-            for (String next : adjacency.getOrDefault(current, List.of())) {
-                if (!visited.contains(next)) {
-                    depthFirstSearch(next, target, adjacency, currentPath, visited, result);
-                }
-            }
-            visited.remove(current);
-        }
-        currentPath.removeLast();
-    }
-
     private List<NodeLabel> buildPointsOrder(List<List<String>> paths) {
         List<NodeLabel> order = new ArrayList<>();
         for (int i = 0; i < paths.size(); i++) {
@@ -327,6 +355,21 @@ public class CapturePointsParser {
         return order;
     }
 
+    static int maxPaths() {
+        String value = System.getProperty(PROPERTY_MAX_PATHS);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_MAX_PATHS);
+        }
+        if (value == null || value.isBlank()) {
+            return DEFAULT_MAX_PATHS;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_MAX_PATHS;
+        }
+    }
+
     private String applyMainOverride(String rawName, String defaultDisplayName, Map<String, String> overrides) {
         if (rawName == null) {
             return defaultDisplayName;
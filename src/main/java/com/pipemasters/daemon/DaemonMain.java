@@ -0,0 +1,69 @@
+package com.pipemasters.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+public final class DaemonMain {
+    private static final Logger LOGGER = LogManager.getLogger(DaemonMain.class);
+    private static final String PORT_OPTION = "--port";
+    private static final int DEFAULT_PORT = 8765;
+    private static final int TOKEN_BYTES = 32;
+    private static final String USAGE = "Usage: java -cp app.jar com.pipemasters.daemon.DaemonMain [--port <port>]";
+
+    private DaemonMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        for (int i = 0; i < args.length; i++) {
+            String value;
+            if (args[i].startsWith(PORT_OPTION + "=")) {
+                value = args[i].substring(PORT_OPTION.length() + 1);
+            } else if (args[i].equals(PORT_OPTION) && i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                LOGGER.error(USAGE);
+                System.exit(1);
+                return;
+            }
+            try {
+                port = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                LOGGER.error("Invalid port '{}'. Expected an integer between 0 and 65535.", value);
+                System.exit(1);
+                return;
+            }
+            if (port < 0 || port > 65535) {
+                LOGGER.error("Invalid port '{}'. Expected an integer between 0 and 65535.", value);
+                System.exit(1);
+                return;
+            }
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+
+        byte[] tokenBytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(tokenBytes);
+        String token = HexFormat.of().formatHex(tokenBytes);
+
+        ExportDaemon daemon = new ExportDaemon(mapper, Path.of("").toAbsolutePath().normalize(), token);
+        daemon.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        LOGGER.info("Send '{}: {}' with every request to the export daemon.", ExportDaemon.TOKEN_HEADER, token);
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "export-daemon-stop"));
+        try {
+            daemon.awaitShutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
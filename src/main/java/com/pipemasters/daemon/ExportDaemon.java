@@ -0,0 +1,489 @@
+package com.pipemasters.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pipemasters.app.LayerBatchExportRequest;
+import com.pipemasters.app.LayerBatchExportSummary;
+import com.pipemasters.app.LayerBatchExporter;
+import com.pipemasters.app.LayerExportApplication;
+import com.pipemasters.app.LayerExportArgumentsParser;
+import com.pipemasters.app.LayerOutputWriter;
+import com.pipemasters.units.Units;
+import com.pipemasters.units.UnitsCache;
+import com.pipemasters.units.UnitsWorkspace;
+import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.WorkerExecutors;
+import com.pipemasters.vehicles.VehicleExport;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class ExportDaemon {
+    public static final String TOKEN_HEADER = "X-Daemon-Token";
+    private static final Logger LOGGER = LogManager.getLogger(ExportDaemon.class);
+    private static final Set<String> ALLOWED_HOSTS = Set.of("localhost", "127.0.0.1");
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final int MAX_RETAINED_JOBS = 200;
+    private static final int DEFAULT_FACTION_THREADS = 8;
+
+    private final ObjectMapper mapper;
+    private final ObjectMapper responseMapper;
+    private final Path projectRoot;
+    private final byte[] token;
+    private final UnitsWorkspace workspace;
+    private final UnitsCache unitsCache;
+    private final LayerExportArgumentsParser argumentsParser = new LayerExportArgumentsParser();
+    private final Map<String, LayerExportApplication> applications = new ConcurrentHashMap<>();
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final AtomicLong nextJobId = new AtomicLong();
+    private final ExecutorService jobExecutor = WorkerExecutors.newWorkerPool("export-daemon", 1, false);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private HttpServer server;
+
+    public ExportDaemon(ObjectMapper mapper, Path projectRoot, String token) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.projectRoot = Objects.requireNonNull(projectRoot, "projectRoot").toAbsolutePath().normalize();
+        if (Objects.requireNonNull(token, "token").isBlank()) {
+            throw new IllegalArgumentException("The daemon token must not be blank.");
+        }
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.responseMapper = mapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.workspace = new UnitsWorkspace(mapper);
+        this.unitsCache = new UnitsCache(mapper);
+    }
+
+    public void start(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/jobs", guarded(this::handleJobs));
+        server.createContext("/refresh", guarded(this::handleRefresh));
+        server.createContext("/shutdown", guarded(this::handleShutdown));
+        server.start();
+        LOGGER.info("Export daemon listening on http://{}:{}/", address.getHostString(), server.getAddress().getPort());
+    }
+
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    public void stop() {
+        if (!stopping.compareAndSet(false, true)) {
+            return;
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+        jobExecutor.shutdown();
+        try {
+            if (!jobExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.warn("Export daemon stopped while a job was still running.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        AssetResolver.flushResolutionCaches();
+        LOGGER.info("Export daemon stopped.");
+        stopped.countDown();
+    }
+
+    private HttpHandler guarded(HttpHandler handler) {
+        return exchange -> {
+            Headers headers = exchange.getRequestHeaders();
+            if (headers.containsKey("Origin")) {
+                reject(exchange, 403, "Cross-origin requests are not accepted.");
+            } else if (!isAllowedHost(headers.getFirst("Host"))) {
+                reject(exchange, 403, "Requests must be addressed to localhost or 127.0.0.1.");
+            } else if (!hasValidToken(headers.getFirst(TOKEN_HEADER))) {
+                reject(exchange, 401, "Missing or invalid " + TOKEN_HEADER + " header.");
+            } else if (!"GET".equals(exchange.getRequestMethod()) && !isJson(headers.getFirst("Content-Type"))) {
+                reject(exchange, 415, "Requests must be sent with Content-Type: " + JSON_CONTENT_TYPE + ".");
+            } else {
+                handler.handle(exchange);
+            }
+        };
+    }
+
+    private boolean hasValidToken(String value) {
+        return value != null && MessageDigest.isEqual(token, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isAllowedHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        String name = host.trim();
+        int portSeparator = name.lastIndexOf(':');
+        if (portSeparator >= 0) {
+            name = name.substring(0, portSeparator);
+        }
+        return ALLOWED_HOSTS.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = parameters >= 0 ? contentType.substring(0, parameters) : contentType;
+        return mediaType.trim().equalsIgnoreCase(JSON_CONTENT_TYPE);
+    }
+
+    private void reject(HttpExchange exchange, int status, String error) throws IOException {
+        try (exchange) {
+            LOGGER.warn("Rejected {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI().getPath(), error);
+            respond(exchange, status, Map.of("error", error));
+        }
+    }
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (!path.equals("/jobs") && !path.startsWith("/jobs/")) {
+                respond(exchange, 404, Map.of("error", "Unknown endpoint '" + path + "'."));
+                return;
+            }
+            String remainder = path.length() > "/jobs".length() ? path.substring("/jobs/".length()) : "";
+            if (remainder.isEmpty()) {
+                if (!"GET".equals(method)) {
+                    respond(exchange, 405, Map.of("error", "Use GET /jobs or POST /jobs/{layers|units|vehicles}."));
+                    return;
+                }
+                respond(exchange, 200, listJobs());
+                return;
+            }
+            if ("POST".equals(method)) {
+                submit(exchange, remainder);
+                return;
+            }
+            if ("GET".equals(method)) {
+                JobStatus status = findJob(remainder);
+                if (status == null) {
+                    respond(exchange, 404, Map.of("error", "Unknown job '" + remainder + "'."));
+                } else {
+                    respond(exchange, 200, status);
+                }
+                return;
+            }
+            respond(exchange, 405, Map.of("error", "Unsupported method " + method + "."));
+        }
+    }
+
+    private void handleRefresh(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, Map.of("error", "Use POST /refresh."));
+                return;
+            }
+            if (stopping.get()) {
+                respond(exchange, 503, Map.of("error", "The export daemon is shutting down."));
+                return;
+            }
+            try {
+                jobExecutor.execute(AssetResolver::invalidateCaches);
+            } catch (RejectedExecutionException e) {
+                respond(exchange, 503, Map.of("error", "The export daemon is shutting down."));
+                return;
+            }
+            respond(exchange, 202, Map.of("status", "Asset caches will be rebuilt before the next job."));
+        }
+    }
+
+    private void handleShutdown(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, Map.of("error", "Use POST /shutdown."));
+                return;
+            }
+            respond(exchange, 202, Map.of("status", "Shutting down after the running job."));
+        }
+        Thread.ofPlatform().name("export-daemon-shutdown").start(this::stop);
+    }
+
+    private void submit(HttpExchange exchange, String type) throws IOException {
+        if (stopping.get()) {
+            respond(exchange, 503, Map.of("error", "The export daemon is shutting down."));
+            return;
+        }
+        JobRequest request;
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readAllBytes();
+            request = bytes.length == 0 ? JobRequest.EMPTY : mapper.readValue(bytes, JobRequest.class);
+        } catch (IOException e) {
+            respond(exchange, 400, Map.of("error", "Invalid job request: " + e.getMessage()));
+            return;
+        }
+
+        JobTask task;
+        try {
+            task = switch (type) {
+                case "layers" -> layersTask(request);
+                case "units" -> unitsTask(request);
+                case "vehicles" -> vehiclesTask(request);
+                default -> null;
+            };
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, Map.of("error", e.getMessage()));
+            return;
+        }
+        if (task == null) {
+            respond(exchange, 404, Map.of("error", "Unknown job type '" + type + "'. Expected layers, units or vehicles."));
+            return;
+        }
+
+        Job job = new Job(Long.toString(nextJobId.incrementAndGet()), type);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            pruneFinishedJobs();
+        }
+        try {
+            jobExecutor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            job.fail("The export daemon is shutting down.", null);
+            respond(exchange, 503, job.status());
+            return;
+        }
+        LOGGER.info("Queued {} job {}.", type, job.id);
+        respond(exchange, 202, job.status());
+    }
+
+    private JobTask layersTask(JobRequest request) {
+        Path layerListPath = requirePath(request.layerList(), "layerList");
+        Path unitsPath = request.units() != null
+                ? resolve(request.units())
+                : projectRoot.resolve("output").resolve("units.json");
+        int threads = request.threads() != null ? request.threads() : Runtime.getRuntime().availableProcessors();
+        LayerBatchExportRequest batchRequest = new LayerBatchExportRequest(projectRoot,
+                layerListPath,
+                unitsPath,
+                Math.max(1, threads),
+                request.virtualThreads(),
+                request.compact(),
+                request.gzip(),
+                request.force(),
+                false,
+                null);
+        return () -> {
+            List<String> layerDefinitions = Files.readAllLines(layerListPath);
+            LayerBatchExporter batchExporter = new LayerBatchExporter(application(request.compact(), request.gzip()), argumentsParser);
+            LayerBatchExportSummary summary = batchExporter.export(layerDefinitions, batchRequest);
+            AssetResolver.flushResolutionCaches();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("processed", summary.processed());
+            result.put("succeeded", summary.succeeded());
+            result.put("unchanged", summary.skipped());
+            result.put("failed", summary.failed());
+            result.put("performance", summary.performance());
+            if (summary.failed() > 0) {
+                throw new JobFailedException(summary.failed() + " layer definition(s) failed.", result);
+            }
+            return result;
+        };
+    }
+
+    private JobTask unitsTask(JobRequest request) {
+        Path baseDir = requirePath(request.baseDir(), "baseDir");
+        int threads = request.threads() != null ? Math.max(1, request.threads()) : defaultFactionThreads(request);
+        Path outputPath = projectRoot.resolve("output").resolve("units.json");
+        return () -> {
+            Units units = workspace.exportUnits(baseDir, outputPath, threads, request.virtualThreads(), request.force());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("output", outputPath.toString());
+            result.put("team1Units", units.team1Units().size());
+            result.put("team2Units", units.team2Units().size());
+            return result;
+        };
+    }
+
+    private JobTask vehiclesTask(JobRequest request) {
+        Path baseDir = requirePath(request.baseDir(), "baseDir");
+        int threads = request.threads() != null ? Math.max(1, request.threads()) : defaultFactionThreads(request);
+        Path outputPath = projectRoot.resolve("output").resolve("vehiclesSAT.json");
+        return () -> {
+            List<VehicleExport> vehicles = workspace.exportVehicles(baseDir, outputPath, threads, request.virtualThreads());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("output", outputPath.toString());
+            result.put("vehicles", vehicles.size());
+            return result;
+        };
+    }
+
+    private void run(Job job, JobTask task) {
+        job.start();
+        LOGGER.info("Running {} job {}.", job.type, job.id);
+        try {
+            AssetResolver.revalidateCaches();
+            job.succeed(task.run());
+            LOGGER.info("{} job {} finished in {} ms.", job.type, job.id, job.status().durationMillis());
+        } catch (JobFailedException e) {
+            job.fail(e.getMessage(), e.result);
+            LOGGER.warn("{} job {} failed: {}", job.type, job.id, e.getMessage());
+        } catch (Throwable e) {
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getName(), null);
+            LOGGER.error("{} job {} failed.", job.type, job.id, e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private LayerExportApplication application(boolean compact, boolean gzip) {
+        return applications.computeIfAbsent(compact + "|" + gzip,
+                key -> new LayerExportApplication(mapper, unitsCache, new LayerOutputWriter(mapper, compact, gzip)));
+    }
+
+    private List<JobStatus> listJobs() {
+        synchronized (jobs) {
+            List<JobStatus> statuses = new ArrayList<>(jobs.size());
+            for (Job job : jobs.values()) {
+                statuses.add(job.status());
+            }
+            return statuses;
+        }
+    }
+
+    private JobStatus findJob(String id) {
+        synchronized (jobs) {
+            Job job = jobs.get(id);
+            return job != null ? job.status() : null;
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (jobs.size() > MAX_RETAINED_JOBS && iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private Path requirePath(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing required field '" + field + "'.");
+        }
+        Path path = resolve(value);
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("Path '" + path + "' given for '" + field + "' does not exist.");
+        }
+        return path;
+    }
+
+    private Path resolve(String value) {
+        return projectRoot.resolve(value).toAbsolutePath().normalize();
+    }
+
+    private static int defaultFactionThreads(JobRequest request) {
+        return request.virtualThreads() ? WorkerExecutors.DEFAULT_VIRTUAL_CONCURRENCY : DEFAULT_FACTION_THREADS;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = responseMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JobTask {
+        Map<String, Object> run() throws IOException;
+    }
+
+    private record JobRequest(String layerList,
+                              String units,
+                              String baseDir,
+                              Integer threads,
+                              boolean virtualThreads,
+                              boolean compact,
+                              boolean gzip,
+                              boolean force) {
+        private static final JobRequest EMPTY = new JobRequest(null, null, null, null, false, false, false, false);
+    }
+
+    private static final class JobFailedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Map<String, Object> result;
+
+        private JobFailedException(String message, Map<String, Object> result) {
+            super(message);
+            this.result = result;
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String type;
+        private final long submittedAt = System.currentTimeMillis();
+        private JobState state = JobState.QUEUED;
+        private Long startedAt;
+        private Long finishedAt;
+        private String message;
+        private Map<String, Object> result;
+
+        private Job(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        private synchronized void start() {
+            state = JobState.RUNNING;
+            startedAt = System.currentTimeMillis();
+        }
+
+        private synchronized void succeed(Map<String, Object> result) {
+            finish(JobState.SUCCEEDED, null, result);
+        }
+
+        private synchronized void fail(String message, Map<String, Object> result) {
+            finish(JobState.FAILED, message, result);
+        }
+
+        private synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private void finish(JobState state, String message, Map<String, Object> result) {
+            this.state = state;
+            this.message = message;
+            this.result = result;
+            this.finishedAt = System.currentTimeMillis();
+        }
+
+        private synchronized JobStatus status() {
+            Long durationMillis = startedAt == null
+                    ? null
+                    : (finishedAt != null ? finishedAt : System.currentTimeMillis()) - startedAt;
+            return new JobStatus(id, type, state, submittedAt, startedAt, finishedAt, durationMillis, message, result);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.pipemasters.daemon;
+
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,14 @@
+package com.pipemasters.daemon;
+
+import java.util.Map;
+
+public record JobStatus(String id,
+                        String type,
+                        JobState state,
+                        long submittedAt,
+                        Long startedAt,
+                        Long finishedAt,
+                        Long durationMillis,
+                        String message,
+                        Map<String, Object> result) {
+}
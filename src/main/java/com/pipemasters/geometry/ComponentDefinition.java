@@ -0,0 +1,18 @@
+package com.pipemasters.geometry;
+
+public record ComponentDefinition(ComponentKey key,
+                                  ComponentType type,
+                                  ComponentKey parentKey,
+                                  ComponentKey levelParentKey,
+                                  Vector3D location,
+                                  Rotation rotation,
+                                  Vector3D scale,
+                                  Vector3D extent,
+                                  double sphereRadius,
+                                  double capsuleRadius,
+                                  double capsuleHalfHeight) {
+
+    public Vector3D extentOrDefault(Vector3D defaultValue) {
+        return extent != null ? extent : defaultValue;
+    }
+}
@@ -0,0 +1,227 @@
+package com.pipemasters.geometry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pipemasters.layer.LayerNodeVisitor;
+
+import java.util.*;
+import java.util.function.Function;
+
+public final class ComponentGraph implements LayerNodeVisitor {
+    private static final Set<String> NODE_TYPES = Set.of(
+            "SceneComponent",
+            "BoxComponent",
+            "SphereComponent",
+            "CapsuleComponent");
+
+    private final Map<ComponentKey, ComponentDefinition> components = new HashMap<>();
+    private final Map<String, List<ComponentDefinition>> componentsByOwner = new HashMap<>();
+    private final Map<ComponentKey, ResolvedTransform> cache = new HashMap<>();
+    private final Map<ComponentKey, ResolvedTransform> levelPathCache = new HashMap<>();
+    private final Map<ComponentKey, ResolvedTransform> sceneCache = new HashMap<>();
+
+    @Override
+    public Set<String> nodeTypes() {
+        return NODE_TYPES;
+    }
+
+    @Override
+    public void visit(String type, JsonNode node) {
+        switch (type) {
+            case "SceneComponent" -> register(parseComponent(node, ComponentType.SCENE, null, 0.0, 0.0, 0.0));
+            case "BoxComponent" -> register(parseBoxComponent(node));
+            case "SphereComponent" -> register(parseSphereComponent(node));
+            case "CapsuleComponent" -> register(parseCapsuleComponent(node));
+            default -> {
+            }
+        }
+    }
+
+    public ComponentDefinition get(ComponentKey key) {
+        return components.get(key);
+    }
+
+    public List<ComponentDefinition> componentsOf(String owner) {
+        return componentsByOwner.getOrDefault(owner, List.of());
+    }
+
+    public ResolvedTransform resolve(ComponentKey key) {
+        return resolve(key, cache, ComponentDefinition::parentKey, false);
+    }
+
+    public ResolvedTransform resolveByLevelPath(ComponentKey key) {
+        return resolve(key, levelPathCache, ComponentDefinition::levelParentKey, false);
+    }
+
+    public ResolvedTransform resolveThroughScenes(ComponentKey key) {
+        return resolve(key, sceneCache, ComponentDefinition::parentKey, true);
+    }
+
+    private ResolvedTransform resolve(ComponentKey key,
+                                      Map<ComponentKey, ResolvedTransform> transforms,
+                                      Function<ComponentDefinition, ComponentKey> parentOf,
+                                      boolean scenesOnly) {
+        if (key == null) {
+            return ResolvedTransform.IDENTITY;
+        }
+        ResolvedTransform cached = transforms.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        ResolvedTransform resolved = resolveInternal(key, transforms, parentOf, scenesOnly);
+        transforms.put(key, resolved);
+        return resolved;
+    }
+
+    private ResolvedTransform resolveInternal(ComponentKey key,
+                                              Map<ComponentKey, ResolvedTransform> transforms,
+                                              Function<ComponentDefinition, ComponentKey> parentOf,
+                                              boolean scenesOnly) {
+        ComponentDefinition definition = components.get(key);
+        if (definition == null || (scenesOnly && definition.type() != ComponentType.SCENE)) {
+            return ResolvedTransform.IDENTITY;
+        }
+        ResolvedTransform parent = resolve(parentOf.apply(definition), transforms, parentOf, scenesOnly);
+        Vector3D scaledLocation = definition.location().multiply(parent.scale());
+        Vector3D rotatedLocation = parent.rotation().rotate(scaledLocation);
+        Vector3D worldLocation = parent.location().add(rotatedLocation);
+        Rotation worldRotation = parent.rotation().add(definition.rotation());
+        Vector3D worldScale = parent.scale().multiply(definition.scale());
+        return new ResolvedTransform(worldLocation, worldRotation, worldScale);
+    }
+
+    private void register(ComponentDefinition definition) {
+        if (definition == null) {
+            return;
+        }
+        components.put(definition.key(), definition);
+        componentsByOwner.computeIfAbsent(definition.key().owner(), key -> new ArrayList<>()).add(definition);
+    }
+
+    private ComponentDefinition parseBoxComponent(JsonNode node) {
+        JsonNode extentNode = node.path("Properties").path("BoxExtent");
+        Vector3D extent = extentNode.isMissingNode() || extentNode.isNull()
+                ? null
+                : readVector(extentNode, Vector3D.ZERO);
+        return parseComponent(node, ComponentType.BOX, extent, 0.0, 0.0, 0.0);
+    }
+
+    private ComponentDefinition parseSphereComponent(JsonNode node) {
+        double radius = node.path("Properties").path("SphereRadius").asDouble(0.0);
+        return parseComponent(node, ComponentType.SPHERE, null, radius, 0.0, 0.0);
+    }
+
+    private ComponentDefinition parseCapsuleComponent(JsonNode node) {
+        JsonNode properties = node.path("Properties");
+        double radius = properties.path("CapsuleRadius").asDouble(0.0);
+        double halfHeight = properties.path("CapsuleHalfHeight").asDouble(0.0);
+        return parseComponent(node, ComponentType.CAPSULE, null, 0.0, radius, halfHeight);
+    }
+
+    private ComponentDefinition parseComponent(JsonNode node,
+                                               ComponentType type,
+                                               Vector3D extent,
+                                               double sphereRadius,
+                                               double capsuleRadius,
+                                               double capsuleHalfHeight) {
+        ComponentKey key = createComponentKey(node);
+        if (key == null) {
+            return null;
+        }
+        JsonNode properties = node.path("Properties");
+        Vector3D location = readVector(properties.path("RelativeLocation"), Vector3D.ZERO);
+        Rotation rotation = readRotation(properties.path("RelativeRotation"));
+        Vector3D scale = readVector(properties.path("RelativeScale3D"), Vector3D.ONES);
+        JsonNode attachParent = properties.path("AttachParent");
+        ComponentKey parentKey = parseAttachParent(attachParent);
+        ComponentKey levelParentKey = parseLevelAttachParent(attachParent);
+        return new ComponentDefinition(key, type, parentKey, levelParentKey, location, rotation, scale, extent, sphereRadius, capsuleRadius, capsuleHalfHeight);
+    }
+
+    private ComponentKey createComponentKey(JsonNode node) {
+        String owner = node.path("Outer").asText(null);
+        String name = node.path("Name").asText(null);
+        if (owner == null || name == null || owner.isBlank() || name.isBlank()) {
+            return null;
+        }
+        return new ComponentKey(owner, name);
+    }
+
+    private ComponentKey parseAttachParent(JsonNode attachParent) {
+        if (attachParent == null || attachParent.isMissingNode()) {
+            return null;
+        }
+        String objectName = attachParent.path("ObjectName").asText(null);
+        if (objectName == null || objectName.isBlank()) {
+            return null;
+        }
+        String normalized = extractInnerName(objectName);
+        int lastDot = normalized.lastIndexOf('.');
+        if (lastDot < 0) {
+            return null;
+        }
+        String owner = normalizeOwner(normalized.substring(0, lastDot));
+        String name = normalized.substring(lastDot + 1);
+        return new ComponentKey(owner, name);
+    }
+
+    private ComponentKey parseLevelAttachParent(JsonNode attachParent) {
+        if (attachParent == null || attachParent.isMissingNode()) {
+            return null;
+        }
+        String objectName = attachParent.path("ObjectName").asText(null);
+        if (objectName == null || objectName.isBlank()) {
+            return null;
+        }
+        String normalized = extractInnerName(objectName);
+        int persistentIndex = normalized.indexOf("PersistentLevel.");
+        if (persistentIndex >= 0) {
+            normalized = normalized.substring(persistentIndex + "PersistentLevel.".length());
+        }
+        int lastDot = normalized.lastIndexOf('.');
+        if (lastDot < 0) {
+            return null;
+        }
+        return new ComponentKey(normalized.substring(0, lastDot), normalized.substring(lastDot + 1));
+    }
+
+    private String normalizeOwner(String owner) {
+        int lastColon = owner.lastIndexOf(':');
+        if (lastColon >= 0 && lastColon < owner.length() - 1) {
+            owner = owner.substring(lastColon + 1);
+        }
+        int lastDot = owner.lastIndexOf('.');
+        if (lastDot >= 0 && lastDot < owner.length() - 1) {
+            owner = owner.substring(lastDot + 1);
+        }
+        return owner;
+    }
+
+    private String extractInnerName(String objectName) {
+        int first = objectName.indexOf('\'');
+        int last = objectName.lastIndexOf('\'');
+        if (first >= 0 && last > first) {
+            return objectName.substring(first + 1, last);
+        }
+        return objectName;
+    }
+
+    private Vector3D readVector(JsonNode node, Vector3D defaultValue) {
+        if (node == null || node.isMissingNode()) {
+            return defaultValue;
+        }
+        double x = node.path("X").asDouble(0.0);
+        double y = node.path("Y").asDouble(0.0);
+        double z = node.path("Z").asDouble(0.0);
+        return new Vector3D(x, y, z);
+    }
+
+    private Rotation readRotation(JsonNode rotationNode) {
+        if (rotationNode == null || rotationNode.isMissingNode()) {
+            return Rotation.ZERO;
+        }
+        double pitch = rotationNode.path("Pitch").asDouble(0.0);
+        double yaw = rotationNode.path("Yaw").asDouble(0.0);
+        double roll = rotationNode.path("Roll").asDouble(0.0);
+        return Rotation.fromEulerDegrees(pitch, yaw, roll);
+    }
+}
@@ -0,0 +1,4 @@
+package com.pipemasters.geometry;
+
+public record ComponentKey(String owner, String name) {
+}
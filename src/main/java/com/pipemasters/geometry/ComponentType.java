@@ -0,0 +1,12 @@
+package com.pipemasters.geometry;
+
+public enum ComponentType {
+    SCENE,
+    BOX,
+    SPHERE,
+    CAPSULE;
+
+    public boolean isRenderable() {
+        return this == BOX || this == SPHERE || this == CAPSULE;
+    }
+}
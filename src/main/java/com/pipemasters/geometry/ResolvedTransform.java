@@ -0,0 +1,5 @@
+package com.pipemasters.geometry;
+
+public record ResolvedTransform(Vector3D location, Rotation rotation, Vector3D scale) {
+    public static final ResolvedTransform IDENTITY = new ResolvedTransform(Vector3D.ZERO, Rotation.ZERO, Vector3D.ONES);
+}
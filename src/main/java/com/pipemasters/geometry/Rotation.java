@@ -0,0 +1,124 @@
+package com.pipemasters.geometry;
+
+public final class Rotation {
+    public static final Rotation ZERO = fromEulerDegrees(0.0, 0.0, 0.0);
+
+    private final double m00;
+    private final double m01;
+    private final double m02;
+    private final double m10;
+    private final double m11;
+    private final double m12;
+    private final double m20;
+    private final double m21;
+    private final double m22;
+    private EulerAngles cachedEulerAngles;
+
+    private Rotation(double m00,
+                     double m01,
+                     double m02,
+                     double m10,
+                     double m11,
+                     double m12,
+                     double m20,
+                     double m21,
+                     double m22) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+        this.m20 = m20;
+        this.m21 = m21;
+        this.m22 = m22;
+    }
+
+    public static Rotation fromEulerDegrees(double pitch, double yaw, double roll) {
+        double pitchRad = Math.toRadians(-pitch);
+        double yawRad = Math.toRadians(yaw);
+        double rollRad = Math.toRadians(-roll);
+
+        double cp = Math.cos(pitchRad);
+        double sp = Math.sin(pitchRad);
+        double cy = Math.cos(yawRad);
+        double sy = Math.sin(yawRad);
+        double cr = Math.cos(rollRad);
+        double sr = Math.sin(rollRad);
+
+        double m00 = cy * cp;
+        double m01 = cy * sp * sr - sy * cr;
+        double m02 = cy * sp * cr + sy * sr;
+
+        double m10 = sy * cp;
+        double m11 = sy * sp * sr + cy * cr;
+        double m12 = sy * sp * cr - cy * sr;
+
+        double m20 = -sp;
+        double m21 = cp * sr;
+        double m22 = cp * cr;
+
+        return new Rotation(m00, m01, m02, m10, m11, m12, m20, m21, m22);
+    }
+
+    public Rotation add(Rotation other) {
+        return new Rotation(
+                m00 * other.m00 + m01 * other.m10 + m02 * other.m20,
+                m00 * other.m01 + m01 * other.m11 + m02 * other.m21,
+                m00 * other.m02 + m01 * other.m12 + m02 * other.m22,
+                m10 * other.m00 + m11 * other.m10 + m12 * other.m20,
+                m10 * other.m01 + m11 * other.m11 + m12 * other.m21,
+                m10 * other.m02 + m11 * other.m12 + m12 * other.m22,
+                m20 * other.m00 + m21 * other.m10 + m22 * other.m20,
+                m20 * other.m01 + m21 * other.m11 + m22 * other.m21,
+                m20 * other.m02 + m21 * other.m12 + m22 * other.m22
+        );
+    }
+
+    public Vector3D rotate(Vector3D vector) {
+        double rx = m00 * vector.x() + m01 * vector.y() + m02 * vector.z();
+        double ry = m10 * vector.x() + m11 * vector.y() + m12 * vector.z();
+        double rz = m20 * vector.x() + m21 * vector.y() + m22 * vector.z();
+        return new Vector3D(rx, ry, rz);
+    }
+
+    public double pitch() {
+        return toEuler().pitch();
+    }
+
+    public double yaw() {
+        return toEuler().yaw();
+    }
+
+    public double roll() {
+        return toEuler().roll();
+    }
+
+    private EulerAngles toEuler() {
+        if (cachedEulerAngles != null) {
+            return cachedEulerAngles;
+        }
+        double pitchRad = Math.asin(-m20);
+        double cp = Math.cos(pitchRad);
+
+        double yawRad;
+        double rollRad;
+        if (Math.abs(cp) > 1e-6) {
+            yawRad = Math.atan2(m10, m00);
+            rollRad = Math.atan2(m21, m22);
+        } else {
+            yawRad = Math.atan2(-m01, m11);
+            rollRad = 0.0;
+        }
+
+        cachedEulerAngles = new EulerAngles(
+                Math.toDegrees(pitchRad),
+                Math.toDegrees(yawRad),
+                Math.toDegrees(rollRad)
+        );
+        return cachedEulerAngles;
+    }
+
+    private record EulerAngles(double pitch, double yaw, double roll) {
+    }
+}
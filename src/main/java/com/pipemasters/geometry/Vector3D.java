@@ -0,0 +1,14 @@
+package com.pipemasters.geometry;
+
+public record Vector3D(double x, double y, double z) {
+    public static final Vector3D ZERO = new Vector3D(0.0, 0.0, 0.0);
+    public static final Vector3D ONES = new Vector3D(1.0, 1.0, 1.0);
+
+    public Vector3D add(Vector3D other) {
+        return new Vector3D(x + other.x, y + other.y, z + other.z);
+    }
+
+    public Vector3D multiply(Vector3D other) {
+        return new Vector3D(x * other.x, y * other.y, z * other.z);
+    }
+}
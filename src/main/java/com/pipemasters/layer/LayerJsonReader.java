@@ -0,0 +1,129 @@
+package com.pipemasters.layer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pipemasters.util.JsonFileInput;
+import com.pipemasters.util.JsonReadEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Set;
+
+public final class LayerJsonReader {
+    private static final Logger LOGGER = LogManager.getLogger(LayerJsonReader.class);
+    private static final String PROPERTY_ENABLED = "layers.selectiveRead";
+    private static final String ENV_ENABLED = "LAYERS_SELECTIVE_READ";
+    private static final Set<String> RETAINED_PROPERTIES = Set.of(
+            "RootComponent",
+            "RelativeLocation",
+            "RelativeRotation",
+            "SeaLevel");
+
+    private final ObjectMapper mapper;
+
+    public LayerJsonReader(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    }
+
+    public static boolean isEnabled() {
+        String value = System.getProperty(PROPERTY_ENABLED);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_ENABLED);
+        }
+        return value == null || value.isBlank() || !(value.trim().equalsIgnoreCase("false") || value.trim().equals("0"));
+    }
+
+    public JsonNode read(Path layerJsonPath, Set<String> nodeTypes) throws IOException {
+        Objects.requireNonNull(layerJsonPath, "layerJsonPath");
+        Objects.requireNonNull(nodeTypes, "nodeTypes");
+        if (!isEnabled()) {
+            return JsonFileInput.readTree(mapper, layerJsonPath);
+        }
+
+        JsonReadEvent event = new JsonReadEvent();
+        event.begin();
+        try (JsonParser parser = JsonFileInput.createParser(mapper, layerJsonPath)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return JsonFileInput.readTree(mapper, layerJsonPath);
+            }
+
+            ArrayNode root = mapper.createArrayNode();
+            int total = 0;
+            int skipped = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                total++;
+                if (token != JsonToken.START_OBJECT) {
+                    root.add(readValue(parser));
+                    continue;
+                }
+                JsonNode node = readElement(parser, nodeTypes);
+                if (node != null) {
+                    root.add(node);
+                } else {
+                    skipped++;
+                }
+            }
+            LOGGER.debug("Read {} of {} layer node(s) from '{}' ({} skipped).", root.size(), total, layerJsonPath, skipped);
+            event.complete(layerJsonPath, parser.currentLocation().getByteOffset(), "selective");
+            return root;
+        }
+    }
+
+    private JsonNode readElement(JsonParser parser, Set<String> nodeTypes) throws IOException {
+        ObjectNode node = mapper.createObjectNode();
+        String type = null;
+        boolean consumed = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (consumed || type == null || value.isScalarValue()) {
+                node.set(field, readValue(parser));
+            } else if ("Properties".equals(field) && value == JsonToken.START_OBJECT) {
+                node.set(field, readRetainedProperties(parser));
+            } else {
+                parser.skipChildren();
+            }
+            if (type == null && "Type".equals(field)) {
+                type = node.path("Type").asText();
+                consumed = nodeTypes.contains(type);
+            }
+        }
+
+        if (consumed) {
+            return node;
+        }
+        JsonNode properties = node.get("Properties");
+        if (properties instanceof ObjectNode objectProperties) {
+            objectProperties.retain(RETAINED_PROPERTIES);
+        }
+        boolean component = type != null && type.endsWith("Component");
+        boolean hasRetainedProperties = properties != null && !properties.isEmpty();
+        return component || hasRetainedProperties ? node : null;
+    }
+
+    private ObjectNode readRetainedProperties(JsonParser parser) throws IOException {
+        ObjectNode properties = mapper.createObjectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (RETAINED_PROPERTIES.contains(name)) {
+                properties.set(name, readValue(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return properties;
+    }
+
+    private JsonNode readValue(JsonParser parser) throws IOException {
+        return mapper.readTree(parser);
+    }
+}
@@ -23,22 +23,35 @@ public class LayerMetadataParser {
             throw new IllegalArgumentException("FModel export is expected to be a JSON array of objects");
         }
 
-        String rawName = findRawName(root)
+        Scan scan = newScan();
+        LayerScanner.scan(root, scan);
+        return parse(exportPath, scan);
+    }
+
+    public Scan newScan() {
+        return new Scan();
+    }
+
+    public LayerMetadata parse(Path exportPath, Scan scan) {
+        Objects.requireNonNull(exportPath, "exportPath");
+        Objects.requireNonNull(scan, "scan");
+
+        String rawName = Optional.ofNullable(scan.rawName)
                 .orElseGet(() -> extractFileStem(exportPath)
                         .orElseThrow(() -> new IllegalStateException("Unable to derive layer raw name")));
 
-        JsonNode worldSettings = findFirstByType(root, "SQWorldSettings").orElse(null);
+        JsonNode worldSettings = scan.worldSettings;
 
-        JsonNode layerDefinition = findFirstByType(root, "BP_SQLayer_C").orElse(null);
+        JsonNode layerDefinition = scan.layerDefinition;
 
         ParsedLayerInfo layerInfo = parseLayerInfo(rawName, worldSettings, layerDefinition);
         String mapId = extractLevelId(layerDefinition)
                 .or(() -> extractMapId(worldSettings))
                 .orElse(layerInfo.mapName().replace(" ", ""));
 
-        MapCameraActor mapCameraActor = parseMapCameraActor(root, worldSettings);
-        List<MapTextureCorner> mapTextureCorners = parseMapTextureCorners(root, worldSettings);
-        List<BorderPoint> border = parseBorder(root);
+        MapCameraActor mapCameraActor = parseMapCameraActor(scan, worldSettings);
+        List<MapTextureCorner> mapTextureCorners = parseMapTextureCorners(scan, worldSettings);
+        List<BorderPoint> border = parseBorder(scan);
         if (border.isEmpty() && !mapTextureCorners.isEmpty()) {
             border = mapTextureCorners.stream()
                     .map(corner -> new BorderPoint(
@@ -48,7 +61,7 @@ public class LayerMetadataParser {
                             corner.locationZ()))
                     .toList();
         }
-        double seaLevel = parseSeaLevel(root).orElse(0.0);
+        double seaLevel = scan.seaLevel != null ? scan.seaLevel : 0.0;
 
         return new LayerMetadata(
                 rawName,
@@ -63,19 +76,6 @@ public class LayerMetadataParser {
         );
     }
 
-    private Optional<String> findRawName(JsonNode root) {
-        for (JsonNode node : root) {
-            if ("Level".equals(node.path("Type").asText())
-                    && "PersistentLevel".equals(node.path("Name").asText())) {
-                String outer = node.path("Outer").asText(null);
-                if (outer != null && !outer.isBlank()) {
-                    return Optional.of(outer);
-                }
-            }
-        }
-        return Optional.empty();
-    }
-
     private Optional<String> extractFileStem(Path path) {
         String fileName = path.getFileName() != null ? path.getFileName().toString() : null;
         if (fileName == null || fileName.isBlank()) {
@@ -304,12 +304,12 @@ public class LayerMetadataParser {
         return Optional.of(levelId.trim());
     }
 
-    private MapCameraActor parseMapCameraActor(JsonNode root, JsonNode worldSettings) {
+    private MapCameraActor parseMapCameraActor(Scan scan, JsonNode worldSettings) {
         String actorName = extractActorName(worldSettings, "MapCameraLocation");
         if (actorName == null) {
             throw new IllegalStateException("Unable to determine map camera actor");
         }
-        JsonNode sceneComponent = findSceneComponent(root, actorName, "SceneComponent");
+        JsonNode sceneComponent = findSceneComponent(scan, actorName, "SceneComponent");
         Vector3 location = readVector(sceneComponent.path("Properties").path("RelativeLocation"));
         JsonNode rotationNode = sceneComponent.path("Properties").path("RelativeRotation");
         double rotationX = rotationNode.path("Pitch").asDouble(0.0);
@@ -326,7 +326,7 @@ public class LayerMetadataParser {
         );
     }
 
-    private List<MapTextureCorner> parseMapTextureCorners(JsonNode root, JsonNode worldSettings) {
+    private List<MapTextureCorner> parseMapTextureCorners(Scan scan, JsonNode worldSettings) {
         if (worldSettings == null) {
             return List.of();
         }
@@ -346,11 +346,11 @@ public class LayerMetadataParser {
                 continue;
             }
             int index = resolveCornerIndex(fieldName, actorName);
-            String rootComponentName = findActor(root, actorName)
+            String rootComponentName = Optional.ofNullable(scan.actorsByName.get(actorName))
                     .map(actor -> extractActorName(actor.path("Properties").path("RootComponent")))
                     .filter(name -> name != null && !name.isBlank())
                     .orElse("DefaultSceneRoot");
-            JsonNode sceneComponent = findSceneComponent(root, actorName, rootComponentName);
+            JsonNode sceneComponent = findSceneComponent(scan, actorName, rootComponentName);
             Vector3 location = readVector(sceneComponent.path("Properties").path("RelativeLocation"));
             corners.put(index, new MapTextureCorner(index, location.x(), location.y(), location.z()));
         }
@@ -388,8 +388,8 @@ public class LayerMetadataParser {
         return Optional.of(Integer.parseInt(value.substring(start, end)));
     }
 
-    private List<BorderPoint> parseBorder(JsonNode root) {
-        JsonNode splineComponent = findBoundarySplineComponent(root);
+    private List<BorderPoint> parseBorder(Scan scan) {
+        JsonNode splineComponent = findBoundarySplineComponent(scan);
         if (splineComponent == null) {
             return Collections.emptyList();
         }
@@ -410,16 +410,9 @@ public class LayerMetadataParser {
         return border;
     }
 
-    private JsonNode findBoundarySplineComponent(JsonNode root) {
-        for (JsonNode node : root) {
-            if (!"SQMapBoundary".equals(node.path("Type").asText())) {
-                continue;
-            }
-            String boundaryName = node.path("Name").asText(null);
-            if (boundaryName == null) {
-                continue;
-            }
-            JsonNode spline = findSplineComponent(root, boundaryName);
+    private JsonNode findBoundarySplineComponent(Scan scan) {
+        for (String boundaryName : scan.boundaryNames) {
+            JsonNode spline = scan.splineComponentsByOuter.get(boundaryName);
             if (spline != null) {
                 return spline;
             }
@@ -427,68 +420,26 @@ public class LayerMetadataParser {
         return null;
     }
 
-    private JsonNode findSplineComponent(JsonNode root, String outer) {
-        for (JsonNode node : root) {
-            if ("SplineComponent".equals(node.path("Type").asText())
-                    && outer.equals(node.path("Outer").asText())) {
-                return node;
-            }
-        }
-        return null;
-    }
-
-    private Optional<Double> parseSeaLevel(JsonNode root) {
-        for (JsonNode node : root) {
-            JsonNode properties = node.path("Properties");
-            if (properties.has("SeaLevel")) {
-                return Optional.of(properties.path("SeaLevel").asDouble());
-            }
-        }
-        return Optional.empty();
-    }
-
-    private JsonNode findSceneComponent(JsonNode root, String outer, String name) {
-        JsonNode fallback = null;
-        for (JsonNode node : root) {
-            if (!outer.equals(node.path("Outer").asText())) {
-                continue;
-            }
-            String type = node.path("Type").asText();
-            if (!isComponentType(type)) {
-                continue;
-            }
-            String nodeName = node.path("Name").asText();
-            if (name != null && name.equals(nodeName)) {
+    private JsonNode findSceneComponent(Scan scan, String outer, String name) {
+        List<JsonNode> components = scan.componentsByOuter.getOrDefault(outer, List.of());
+        for (JsonNode node : components) {
+            if (name != null && name.equals(node.path("Name").asText())) {
                 return node;
             }
-            if (fallback == null) {
-                fallback = node;
-            }
         }
-        if (fallback != null) {
-            return fallback;
+        if (!components.isEmpty()) {
+            return components.get(0);
         }
         throw new IllegalStateException("Unable to locate component '" + name + "' for '" + outer + "'");
     }
 
-    private boolean isComponentType(String type) {
+    private static boolean isComponentType(String type) {
         if (type == null || type.isBlank()) {
             return false;
         }
         return "SceneComponent".equals(type) || type.endsWith("Component");
     }
 
-    private Optional<JsonNode> findActor(JsonNode root, String name) {
-        for (JsonNode node : root) {
-            if (name.equals(node.path("Name").asText(null))
-                    && !"SceneComponent".equals(node.path("Type").asText())
-                    && node.path("Properties").has("RootComponent")) {
-                return Optional.of(node);
-            }
-        }
-        return Optional.empty();
-    }
-
     private String extractActorName(JsonNode ownerNode) {
         if (ownerNode == null || ownerNode.isMissingNode()) {
             return null;
@@ -516,15 +467,6 @@ public class LayerMetadataParser {
         return extractActorName(reference);
     }
 
-    private Optional<JsonNode> findFirstByType(JsonNode root, String type) {
-        for (JsonNode node : root) {
-            if (type.equals(node.path("Type").asText())) {
-                return Optional.of(node);
-            }
-        }
-        return Optional.empty();
-    }
-
     private String extractInnerName(String objectName) {
         int first = objectName.indexOf('\'');
         int last = objectName.lastIndexOf('\'');
@@ -544,6 +486,85 @@ public class LayerMetadataParser {
         return new Vector3(x, y, z);
     }
 
+    public static final class Scan implements LayerNodeVisitor {
+        private static final Set<String> NODE_TYPES = Set.of(
+                "Level",
+                "SQWorldSettings",
+                "BP_SQLayer_C",
+                "SQMapBoundary",
+                "SplineComponent");
+
+        private String rawName;
+        private JsonNode worldSettings;
+        private JsonNode layerDefinition;
+        private Double seaLevel;
+        private final List<String> boundaryNames = new ArrayList<>();
+        private final Map<String, JsonNode> splineComponentsByOuter = new HashMap<>();
+        private final Map<String, List<JsonNode>> componentsByOuter = new HashMap<>();
+        private final Map<String, JsonNode> actorsByName = new HashMap<>();
+
+        private Scan() {
+        }
+
+        @Override
+        public Set<String> nodeTypes() {
+            return NODE_TYPES;
+        }
+
+        @Override
+        public boolean visitsAllTypes() {
+            return true;
+        }
+
+        @Override
+        public void visit(String type, JsonNode node) {
+            switch (type) {
+                case "Level" -> recordRawName(node);
+                case "SQWorldSettings" -> {
+                    if (worldSettings == null) {
+                        worldSettings = node;
+                    }
+                }
+                case "BP_SQLayer_C" -> {
+                    if (layerDefinition == null) {
+                        layerDefinition = node;
+                    }
+                }
+                case "SQMapBoundary" -> {
+                    String boundaryName = node.path("Name").asText(null);
+                    if (boundaryName != null) {
+                        boundaryNames.add(boundaryName);
+                    }
+                }
+                case "SplineComponent" -> splineComponentsByOuter.putIfAbsent(node.path("Outer").asText(), node);
+                default -> {
+                }
+            }
+
+            JsonNode properties = node.path("Properties");
+            if (seaLevel == null && properties.has("SeaLevel")) {
+                seaLevel = properties.path("SeaLevel").asDouble();
+            }
+            if (isComponentType(type)) {
+                componentsByOuter.computeIfAbsent(node.path("Outer").asText(), key -> new ArrayList<>()).add(node);
+            }
+            String name = node.path("Name").asText(null);
+            if (name != null && !"SceneComponent".equals(type) && properties.has("RootComponent")) {
+                actorsByName.putIfAbsent(name, node);
+            }
+        }
+
+        private void recordRawName(JsonNode node) {
+            if (rawName != null || !"PersistentLevel".equals(node.path("Name").asText())) {
+                return;
+            }
+            String outer = node.path("Outer").asText(null);
+            if (outer != null && !outer.isBlank()) {
+                rawName = outer;
+            }
+        }
+    }
+
     private record ParsedLayerInfo(String mapName, String gamemode, String layerVersion) {
     }
 
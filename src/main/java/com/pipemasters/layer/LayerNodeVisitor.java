@@ -0,0 +1,15 @@
+package com.pipemasters.layer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Set;
+
+public interface LayerNodeVisitor {
+    Set<String> nodeTypes();
+
+    default boolean visitsAllTypes() {
+        return false;
+    }
+
+    void visit(String type, JsonNode node);
+}
@@ -0,0 +1,62 @@
+package com.pipemasters.layer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public final class LayerScanner {
+    private final Map<String, List<LayerNodeVisitor>> visitorsByType = new HashMap<>();
+    private final List<LayerNodeVisitor> allTypeVisitors = new ArrayList<>();
+    private final Set<String> nodeTypes = new LinkedHashSet<>();
+
+    public static void scan(JsonNode root, LayerNodeVisitor... visitors) {
+        LayerScanner scanner = new LayerScanner();
+        for (LayerNodeVisitor visitor : visitors) {
+            scanner.register(visitor);
+        }
+        scanner.scan(root);
+    }
+
+    public LayerScanner register(LayerNodeVisitor visitor) {
+        Objects.requireNonNull(visitor, "visitor");
+        nodeTypes.addAll(visitor.nodeTypes());
+        if (visitor.visitsAllTypes()) {
+            allTypeVisitors.add(visitor);
+            return this;
+        }
+        for (String type : visitor.nodeTypes()) {
+            visitorsByType.computeIfAbsent(type, key -> new ArrayList<>()).add(visitor);
+        }
+        return this;
+    }
+
+    public Set<String> nodeTypes() {
+        return Collections.unmodifiableSet(nodeTypes);
+    }
+
+    public void scan(JsonNode root) {
+        if (root == null || !root.isArray()) {
+            throw new IllegalArgumentException("FModel export is expected to be a JSON array of objects");
+        }
+        for (JsonNode node : root) {
+            String type = node.path("Type").asText();
+            for (LayerNodeVisitor visitor : allTypeVisitors) {
+                visitor.visit(type, node);
+            }
+            List<LayerNodeVisitor> visitors = visitorsByType.get(type);
+            if (visitors == null) {
+                continue;
+            }
+            for (LayerNodeVisitor visitor : visitors) {
+                visitor.visit(type, node);
+            }
+        }
+    }
+}
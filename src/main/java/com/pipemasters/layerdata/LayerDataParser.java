@@ -2,6 +2,7 @@ package com.pipemasters.layerdata;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.util.JsonFileInput;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -52,7 +53,10 @@ public class LayerDataParser {
             return TeamFactions.empty();
         }
 
-        JsonNode root = mapper.readTree(layerDataPath.toFile());
+        return parseTeamFactions(JsonFileInput.readTree(mapper, layerDataPath));
+    }
+
+    public TeamFactions parseTeamFactions(JsonNode root) {
         if (root == null || !root.isArray()) {
             return TeamFactions.empty();
         }
@@ -65,7 +69,7 @@ public class LayerDataParser {
 
         JsonNode properties = layerNode.path("Properties");
         boolean separated = properties.path("bSeparatedFactionsList").asBoolean(false);
-        GameMode gameMode = parseGameMode(properties);
+        GameMode gameMode = parseGameModeFromProperties(properties);
         boolean mirroredTeams = gameMode.hasMirroredTeams();
 
         List<FactionConfig> team1 = new ArrayList<>();
@@ -108,7 +112,10 @@ public class LayerDataParser {
             return GameMode.UNKNOWN;
         }
 
-        JsonNode root = mapper.readTree(layerDataPath.toFile());
+        return parseGameMode(JsonFileInput.readTree(mapper, layerDataPath));
+    }
+
+    public GameMode parseGameMode(JsonNode root) {
         if (root == null || !root.isArray()) {
             return GameMode.UNKNOWN;
         }
@@ -118,7 +125,7 @@ public class LayerDataParser {
             return GameMode.UNKNOWN;
         }
 
-        return parseGameMode(layerNode.path("Properties"));
+        return parseGameModeFromProperties(layerNode.path("Properties"));
     }
 
     public LayerTeamConfigs parseTeamConfigs(Path layerDataPath) throws IOException {
@@ -127,13 +134,16 @@ public class LayerDataParser {
             return LayerTeamConfigs.empty();
         }
 
-        JsonNode root = mapper.readTree(layerDataPath.toFile());
+        return parseTeamConfigs(JsonFileInput.readTree(mapper, layerDataPath));
+    }
+
+    public LayerTeamConfigs parseTeamConfigs(JsonNode root) {
         if (root == null || !root.isArray()) {
             return LayerTeamConfigs.empty();
         }
 
         JsonNode layerNode = findLayerNode(root);
-        GameMode gameMode = parseGameMode(layerNode == null ? null : layerNode.path("Properties"));
+        GameMode gameMode = parseGameModeFromProperties(layerNode == null ? null : layerNode.path("Properties"));
         boolean mirroredTeams = gameMode.hasMirroredTeams();
 
         TeamConfig team1 = null;
@@ -274,7 +284,7 @@ public class LayerDataParser {
         return null;
     }
 
-    private GameMode parseGameMode(JsonNode properties) {
+    private GameMode parseGameModeFromProperties(JsonNode properties) {
         if (properties == null || properties.isMissingNode()) {
             return GameMode.UNKNOWN;
         }
@@ -1,8 +1,10 @@
 package com.pipemasters.layerdata;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.pipemasters.model.LayerTeamConfiguration;
 import com.pipemasters.units.UnitFactionFactory;
 import com.pipemasters.units.Units;
+import com.pipemasters.units.UnitsIndex;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -18,13 +20,23 @@ public final class TeamConfigurationComposer {
     }
 
     public LayerTeamConfiguration compose(Path layerDataPath, Units units) throws IOException {
+        return compose(layerDataPath, units == null ? null : UnitsIndex.of(units));
+    }
+
+    public LayerTeamConfiguration compose(Path layerDataPath, UnitsIndex units) throws IOException {
         Objects.requireNonNull(layerDataPath, "layerDataPath");
+        return compose(layerDataParser.parseTeamFactions(layerDataPath), layerDataParser.parseTeamConfigs(layerDataPath), units);
+    }
+
+    public LayerTeamConfiguration compose(JsonNode layerDataRoot, UnitsIndex units) {
+        Objects.requireNonNull(layerDataRoot, "layerDataRoot");
+        return compose(layerDataParser.parseTeamFactions(layerDataRoot), layerDataParser.parseTeamConfigs(layerDataRoot), units);
+    }
 
-        TeamFactions teamFactions = layerDataParser.parseTeamFactions(layerDataPath);
+    private LayerTeamConfiguration compose(TeamFactions teamFactions, LayerTeamConfigs teamConfigs, UnitsIndex units) {
         if (teamFactions == null) {
             teamFactions = TeamFactions.empty();
         }
-        LayerTeamConfigs teamConfigs = layerDataParser.parseTeamConfigs(layerDataPath);
         if (teamConfigs == null) {
             teamConfigs = LayerTeamConfigs.empty();
         }
@@ -2,6 +2,14 @@ package com.pipemasters.objectives;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.pipemasters.capture.CaptureClusters;
+import com.pipemasters.geometry.ComponentDefinition;
+import com.pipemasters.geometry.ComponentGraph;
+import com.pipemasters.geometry.ComponentKey;
+import com.pipemasters.geometry.ResolvedTransform;
+import com.pipemasters.geometry.Rotation;
+import com.pipemasters.geometry.Vector3D;
+import com.pipemasters.layer.LayerNodeVisitor;
+import com.pipemasters.layer.LayerScanner;
 import com.pipemasters.layerdata.GameMode;
 import com.pipemasters.util.MainNameFormatter;
 import com.pipemasters.util.ObjectiveNameFormatter;
@@ -10,42 +18,32 @@ import java.math.BigDecimal;
 import java.util.*;
 
 public class ObjectivesParser {
+    private static final Vector3D DEFAULT_BOX_EXTENT = new Vector3D(50.0, 50.0, 50.0);
+
     public ObjectivesParser() {
     }
 
     public Map<String, Objective> parseObjectives(JsonNode root, CaptureClusters captureClusters, GameMode gameMode) {
-        if (root == null || !root.isArray()) {
-            throw new IllegalArgumentException("FModel export is expected to be a JSON array of objects");
-        }
+        ComponentGraph components = new ComponentGraph();
+        Scan scan = newScan();
+        LayerScanner.scan(root, components, scan);
+        return parseObjectives(scan, components, captureClusters, gameMode);
+    }
 
-        Map<ComponentKey, ComponentDefinition> components = new LinkedHashMap<>();
-        Map<String, List<ComponentDefinition>> componentsByOwner = new HashMap<>();
-        Map<String, String> pointDisplayNames = new HashMap<>();
-        Map<String, String> clusterDisplayNames = new HashMap<>();
-        Set<String> captureZoneActors = new LinkedHashSet<>();
-        Set<String> clusterActors = new LinkedHashSet<>();
-        Set<String> mainActors = new LinkedHashSet<>();
+    public Scan newScan() {
+        return new Scan();
+    }
 
-        for (JsonNode node : root) {
-            String type = node.path("Type").asText();
-            switch (type) {
-                case "SceneComponent" -> registerComponent(parseSceneComponent(node), components, componentsByOwner);
-                case "BoxComponent" -> registerComponent(parseBoxComponent(node), components, componentsByOwner);
-                case "SphereComponent" -> registerComponent(parseSphereComponent(node), components, componentsByOwner);
-                case "CapsuleComponent" ->
-                        registerComponent(parseCapsuleComponent(node), components, componentsByOwner);
-                case "BP_CaptureZoneInvasion_C", "BP_CaptureZone_C" ->
-                        captureZoneActors.add(node.path("Name").asText());
-                case "BP_CaptureZoneCluster_C" -> clusterActors.add(node.path("Name").asText());
-                case "BP_CaptureZoneMain_C" -> mainActors.add(node.path("Name").asText());
-                case "SQCaptureZoneInvasionComponent", "SQCaptureZoneComponent" ->
-                        storeCaptureZoneDisplayName(node, pointDisplayNames);
-                default -> {
-                }
-            }
-        }
+    public Map<String, Objective> parseObjectives(Scan scan,
+                                                  ComponentGraph components,
+                                                  CaptureClusters captureClusters,
+                                                  GameMode gameMode) {
+        Map<String, String> pointDisplayNames = scan.pointDisplayNames;
+        Map<String, String> clusterDisplayNames = new HashMap<>();
+        Set<String> captureZoneActors = scan.captureZoneActors;
+        Set<String> clusterActors = new LinkedHashSet<>(scan.clusterActors);
+        Set<String> mainActors = scan.mainActors;
 
-        TransformResolver resolver = new TransformResolver(components);
         Map<String, List<ObjectivePoint>> clusterPoints = new HashMap<>();
 
         Map<String, Integer> stageIndex = computeStageIndex(captureClusters);
@@ -55,13 +53,13 @@ public class ObjectivesParser {
 
         for (String zoneName : captureZoneActors) {
             ComponentKey zoneRootKey = new ComponentKey(zoneName, "DefaultSceneRoot");
-            ResolvedTransform zoneTransform = resolver.resolve(zoneRootKey);
+            ResolvedTransform zoneTransform = components.resolveByLevelPath(zoneRootKey);
             ComponentDefinition zoneDefinition = components.get(zoneRootKey);
-            if (zoneDefinition == null || zoneDefinition.parentKey() == null) {
+            if (zoneDefinition == null || zoneDefinition.levelParentKey() == null) {
                 continue;
             }
             String displayName = pointDisplayNames.getOrDefault(zoneName, zoneName);
-            String clusterName = zoneDefinition.parentKey().owner();
+            String clusterName = zoneDefinition.levelParentKey().owner();
 
             if (!clusterActors.contains(clusterName)) {
                 clusterName = zoneName;
@@ -69,7 +67,7 @@ public class ObjectivesParser {
             }
             clusterDisplayNames.putIfAbsent(clusterName, displayName);
 
-            List<ObjectiveObject> objects = buildObjectiveObjects(zoneName, resolver, componentsByOwner);
+            List<ObjectiveObject> objects = buildObjectiveObjects(zoneName, components);
             String pointObjectDisplayName = gameMode == GameMode.RAAS
                     ? ObjectiveNameFormatter.formatObjectDisplayName(zoneName)
                     : null;
@@ -126,9 +124,9 @@ public class ObjectivesParser {
         List<ObjectiveWithKey> mainObjectives = new ArrayList<>();
         for (String mainName : mainActors) {
             ComponentKey mainRootKey = new ComponentKey(mainName, "DefaultSceneRoot");
-            ResolvedTransform transform = resolver.resolve(mainRootKey);
+            ResolvedTransform transform = components.resolveByLevelPath(mainRootKey);
             String displayName = formatMainDisplayName(mainName, mainNameOverrides);
-            List<ObjectiveObject> objects = buildObjectiveObjects(mainName, resolver, componentsByOwner);
+            List<ObjectiveObject> objects = buildObjectiveObjects(mainName, components);
             Integer pointPosition = stageIndex.get(displayName);
 
             Objective mainObjective = new ObjectiveSimple(
@@ -160,124 +158,53 @@ public class ObjectivesParser {
         return objectives;
     }
 
-    private void storeCaptureZoneDisplayName(JsonNode node, Map<String, String> pointDisplayNames) {
-        String outer = node.path("Outer").asText();
-        JsonNode flagName = node.path("Properties").path("FlagName");
-        String displayName = flagName.path("LocalizedString").asText();
-        if (displayName == null || displayName.isBlank()) {
-            displayName = flagName.path("SourceString").asText();
-        }
-        if (displayName != null && !displayName.isBlank()) {
-            pointDisplayNames.put(outer, displayName);
-        }
-    }
-
-    private ComponentDefinition parseSceneComponent(JsonNode node) {
-        return parseComponent(node, ComponentType.SCENE, Vector3D.ZERO, 0.0, 0.0, 0.0);
-    }
-
-    private ComponentDefinition parseBoxComponent(JsonNode node) {
-        JsonNode extentNode = node.path("Properties").path("BoxExtent");
-        Vector3D extent = readVector(extentNode, "X", "Y", "Z", Vector3D.ZERO);
-        if (extentNode.isMissingNode() || extentNode.isNull()) {
-            extent = new Vector3D(50.0, 50.0, 50.0);
-        }
-        return parseComponent(node, ComponentType.BOX, extent, 0.0, 0.0, 0.0);
-    }
-
-    private ComponentDefinition parseSphereComponent(JsonNode node) {
-        double radius = node.path("Properties").path("SphereRadius").asDouble(0.0);
-        return parseComponent(node, ComponentType.SPHERE, Vector3D.ZERO, radius, 0.0, 0.0);
-    }
-
-    private ComponentDefinition parseCapsuleComponent(JsonNode node) {
-        JsonNode properties = node.path("Properties");
-        double radius = properties.path("CapsuleRadius").asDouble(0.0);
-        double halfHeight = properties.path("CapsuleHalfHeight").asDouble(0.0);
-        return parseComponent(node, ComponentType.CAPSULE, Vector3D.ZERO, 0.0, radius, halfHeight);
-    }
+    public static final class Scan implements LayerNodeVisitor {
+        private static final Set<String> NODE_TYPES = Set.of(
+                "BP_CaptureZoneInvasion_C",
+                "BP_CaptureZone_C",
+                "BP_CaptureZoneCluster_C",
+                "BP_CaptureZoneMain_C",
+                "SQCaptureZoneInvasionComponent",
+                "SQCaptureZoneComponent");
 
-    private ComponentDefinition parseComponent(JsonNode node,
-                                               ComponentType type,
-                                               Vector3D extent,
-                                               double sphereRadius,
-                                               double capsuleRadius,
-                                               double capsuleHalfHeight) {
-        ComponentKey key = createComponentKey(node);
-        if (key == null) {
-            return null;
-        }
-        JsonNode properties = node.path("Properties");
-        Vector3D location = readVector(properties.path("RelativeLocation"), "X", "Y", "Z", Vector3D.ZERO);
-        Rotation rotation = readRotation(properties.path("RelativeRotation"));
-        Vector3D scale = readVector(properties.path("RelativeScale3D"), "X", "Y", "Z", Vector3D.ONES);
-        ComponentKey parentKey = parseAttachParent(properties.path("AttachParent"));
-        return new ComponentDefinition(key, type, parentKey, new Transform(location, rotation), scale, extent, sphereRadius, capsuleRadius, capsuleHalfHeight);
-    }
+        private final Map<String, String> pointDisplayNames = new HashMap<>();
+        private final Set<String> captureZoneActors = new LinkedHashSet<>();
+        private final Set<String> clusterActors = new LinkedHashSet<>();
+        private final Set<String> mainActors = new LinkedHashSet<>();
 
-    private ComponentKey createComponentKey(JsonNode node) {
-        String owner = node.path("Outer").asText(null);
-        String name = node.path("Name").asText(null);
-        if (owner == null || name == null || owner.isBlank() || name.isBlank()) {
-            return null;
+        private Scan() {
         }
-        return new ComponentKey(owner, name);
-    }
 
-    private void registerComponent(ComponentDefinition definition,
-                                   Map<ComponentKey, ComponentDefinition> components,
-                                   Map<String, List<ComponentDefinition>> componentsByOwner) {
-        if (definition == null || definition.key() == null) {
-            return;
+        @Override
+        public Set<String> nodeTypes() {
+            return NODE_TYPES;
         }
-        components.put(definition.key(), definition);
-        componentsByOwner.computeIfAbsent(definition.key().owner(), key -> new ArrayList<>()).add(definition);
-    }
 
-    private ComponentKey parseAttachParent(JsonNode attachParent) {
-        if (attachParent == null || attachParent.isMissingNode()) {
-            return null;
-        }
-        String objectName = attachParent.path("ObjectName").asText(null);
-        if (objectName == null || objectName.isBlank()) {
-            return null;
-        }
-        int firstQuote = objectName.indexOf('\'');
-        int lastQuote = objectName.lastIndexOf('\'');
-        if (firstQuote >= 0 && lastQuote > firstQuote) {
-            objectName = objectName.substring(firstQuote + 1, lastQuote);
-        }
-        int persistentIndex = objectName.indexOf("PersistentLevel.");
-        if (persistentIndex >= 0) {
-            objectName = objectName.substring(persistentIndex + "PersistentLevel.".length());
-        }
-        int lastDot = objectName.lastIndexOf('.');
-        if (lastDot < 0) {
-            return null;
+        @Override
+        public void visit(String type, JsonNode node) {
+            switch (type) {
+                case "BP_CaptureZoneInvasion_C", "BP_CaptureZone_C" ->
+                        captureZoneActors.add(node.path("Name").asText());
+                case "BP_CaptureZoneCluster_C" -> clusterActors.add(node.path("Name").asText());
+                case "BP_CaptureZoneMain_C" -> mainActors.add(node.path("Name").asText());
+                case "SQCaptureZoneInvasionComponent", "SQCaptureZoneComponent" ->
+                        storeCaptureZoneDisplayName(node, pointDisplayNames);
+                default -> {
+                }
+            }
         }
-        String owner = objectName.substring(0, lastDot);
-        String name = objectName.substring(lastDot + 1);
-        return new ComponentKey(owner, name);
     }
 
-    private Rotation readRotation(JsonNode rotationNode) {
-        if (rotationNode == null || rotationNode.isMissingNode()) {
-            return Rotation.ZERO;
+    private static void storeCaptureZoneDisplayName(JsonNode node, Map<String, String> pointDisplayNames) {
+        String outer = node.path("Outer").asText();
+        JsonNode flagName = node.path("Properties").path("FlagName");
+        String displayName = flagName.path("LocalizedString").asText();
+        if (displayName == null || displayName.isBlank()) {
+            displayName = flagName.path("SourceString").asText();
         }
-        double pitch = rotationNode.path("Pitch").asDouble(0.0);
-        double yaw = rotationNode.path("Yaw").asDouble(0.0);
-        double roll = rotationNode.path("Roll").asDouble(0.0);
-        return Rotation.fromEulerDegrees(pitch, yaw, roll);
-    }
-
-    private Vector3D readVector(JsonNode node, String xField, String yField, String zField, Vector3D defaultValue) {
-        if (node == null || node.isMissingNode()) {
-            return defaultValue;
+        if (displayName != null && !displayName.isBlank()) {
+            pointDisplayNames.put(outer, displayName);
         }
-        double x = node.path(xField).asDouble(0.0);
-        double y = node.path(yField).asDouble(0.0);
-        double z = node.path(zField).asDouble(0.0);
-        return new Vector3D(x, y, z);
     }
 
     private Map<String, Integer> computeStageIndex(CaptureClusters captureClusters) {
@@ -344,16 +271,14 @@ public class ObjectivesParser {
         return new ObjectiveLocation(sumX / size, sumY / size, sumZ / size);
     }
 
-    private List<ObjectiveObject> buildObjectiveObjects(String owner,
-                                                        TransformResolver resolver,
-                                                        Map<String, List<ComponentDefinition>> componentsByOwner) {
-        List<ComponentDefinition> definitions = componentsByOwner.getOrDefault(owner, List.of());
+    private List<ObjectiveObject> buildObjectiveObjects(String owner, ComponentGraph components) {
+        List<ComponentDefinition> definitions = components.componentsOf(owner);
         List<ObjectiveVolume> volumes = new ArrayList<>();
         for (ComponentDefinition definition : definitions) {
             if (!definition.type().isRenderable()) {
                 continue;
             }
-            ResolvedTransform transform = resolver.resolve(definition.key());
+            ResolvedTransform transform = components.resolveByLevelPath(definition.key());
             ObjectiveVolume volume = toObjectiveVolume(definition, transform);
             if (volume != null) {
                 volumes.add(volume);
@@ -392,7 +317,7 @@ public class ObjectivesParser {
                                             Rotation rotation,
                                             Vector3D worldScale,
                                             Vector3D localScale) {
-        Vector3D baseExtent = definition.extent();
+        Vector3D baseExtent = definition.extentOrDefault(DEFAULT_BOX_EXTENT);
         Vector3D scaledExtent = baseExtent.multiply(worldScale);
         double radius = Math.sqrt(
                 scaledExtent.x() * scaledExtent.x()
@@ -565,223 +490,6 @@ public class ObjectivesParser {
     private record ObjectiveWithKey(String key, Objective objective) {
     }
 
-    private enum ComponentType {
-        SCENE,
-        BOX,
-        SPHERE,
-        CAPSULE;
-
-        boolean isRenderable() {
-            return this == BOX || this == SPHERE || this == CAPSULE;
-        }
-    }
-
-    private record ComponentKey(String owner, String name) {
-    }
-
-    private record ComponentDefinition(ComponentKey key,
-                                       ComponentType type,
-                                       ComponentKey parentKey,
-                                       Transform localTransform,
-                                       Vector3D scale,
-                                       Vector3D extent,
-                                       double sphereRadius,
-                                       double capsuleRadius,
-                                       double capsuleHalfHeight) {
-    }
-
-    private record Transform(Vector3D location, Rotation rotation) {
-    }
-
-    private record Vector3D(double x, double y, double z) {
-        static final Vector3D ZERO = new Vector3D(0.0, 0.0, 0.0);
-        static final Vector3D ONES = new Vector3D(1.0, 1.0, 1.0);
-
-        Vector3D add(Vector3D other) {
-            return new Vector3D(x + other.x, y + other.y, z + other.z);
-        }
-
-        Vector3D multiply(Vector3D other) {
-            return new Vector3D(x * other.x, y * other.y, z * other.z);
-        }
-    }
-
-    private static final class Rotation {
-        static final Rotation ZERO = fromEulerDegrees(0.0, 0.0, 0.0);
-
-        private final double m00;
-        private final double m01;
-        private final double m02;
-        private final double m10;
-        private final double m11;
-        private final double m12;
-        private final double m20;
-        private final double m21;
-        private final double m22;
-        private EulerAngles cachedEulerAngles;
-
-        private Rotation(double m00,
-                         double m01,
-                         double m02,
-                         double m10,
-                         double m11,
-                         double m12,
-                         double m20,
-                         double m21,
-                         double m22) {
-            this.m00 = m00;
-            this.m01 = m01;
-            this.m02 = m02;
-            this.m10 = m10;
-            this.m11 = m11;
-            this.m12 = m12;
-            this.m20 = m20;
-            this.m21 = m21;
-            this.m22 = m22;
-        }
-
-        static Rotation fromEulerDegrees(double pitch, double yaw, double roll) {
-            double pitchRad = Math.toRadians(-pitch);
-            double yawRad = Math.toRadians(yaw);
-            double rollRad = Math.toRadians(-roll);
-
-            double cp = Math.cos(pitchRad);
-            double sp = Math.sin(pitchRad);
-            double cy = Math.cos(yawRad);
-            double sy = Math.sin(yawRad);
-            double cr = Math.cos(rollRad);
-            double sr = Math.sin(rollRad);
-
-            double m00 = cy * cp;
-            double m01 = cy * sp * sr - sy * cr;
-            double m02 = cy * sp * cr + sy * sr;
-
-            double m10 = sy * cp;
-            double m11 = sy * sp * sr + cy * cr;
-            double m12 = sy * sp * cr - cy * sr;
-
-            double m20 = -sp;
-            double m21 = cp * sr;
-            double m22 = cp * cr;
-
-            return new Rotation(m00, m01, m02, m10, m11, m12, m20, m21, m22);
-        }
-
-        Rotation add(Rotation other) {
-            return new Rotation(
-                    m00 * other.m00 + m01 * other.m10 + m02 * other.m20,
-                    m00 * other.m01 + m01 * other.m11 + m02 * other.m21,
-                    m00 * other.m02 + m01 * other.m12 + m02 * other.m22,
-                    m10 * other.m00 + m11 * other.m10 + m12 * other.m20,
-                    m10 * other.m01 + m11 * other.m11 + m12 * other.m21,
-                    m10 * other.m02 + m11 * other.m12 + m12 * other.m22,
-                    m20 * other.m00 + m21 * other.m10 + m22 * other.m20,
-                    m20 * other.m01 + m21 * other.m11 + m22 * other.m21,
-                    m20 * other.m02 + m21 * other.m12 + m22 * other.m22
-            );
-        }
-
-        Vector3D rotate(Vector3D vector) {
-            double rx = m00 * vector.x() + m01 * vector.y() + m02 * vector.z();
-            double ry = m10 * vector.x() + m11 * vector.y() + m12 * vector.z();
-            double rz = m20 * vector.x() + m21 * vector.y() + m22 * vector.z();
-            return new Vector3D(rx, ry, rz);
-        }
-
-        Vector3D rotateExtents(Vector3D extents) {
-            double ex = Math.abs(m00) * extents.x()
-                    + Math.abs(m01) * extents.y()
-                    + Math.abs(m02) * extents.z();
-            double ey = Math.abs(m10) * extents.x()
-                    + Math.abs(m11) * extents.y()
-                    + Math.abs(m12) * extents.z();
-            double ez = Math.abs(m20) * extents.x()
-                    + Math.abs(m21) * extents.y()
-                    + Math.abs(m22) * extents.z();
-            return new Vector3D(ex, ey, ez);
-        }
-
-        double pitch() {
-            return toEuler().pitch();
-        }
-
-        double yaw() {
-            return toEuler().yaw();
-        }
-
-        double roll() {
-            return toEuler().roll();
-        }
-
-        private EulerAngles toEuler() {
-            if (cachedEulerAngles != null) {
-                return cachedEulerAngles;
-            }
-            double pitchRad = Math.asin(-m20);
-            double cp = Math.cos(pitchRad);
-
-            double yawRad;
-            double rollRad;
-            if (Math.abs(cp) > 1e-6) {
-                yawRad = Math.atan2(m10, m00);
-                rollRad = Math.atan2(m21, m22);
-            } else {
-                yawRad = Math.atan2(-m01, m11);
-                rollRad = 0.0;
-            }
-
-            cachedEulerAngles = new EulerAngles(
-                    Math.toDegrees(pitchRad),
-                    Math.toDegrees(yawRad),
-                    Math.toDegrees(rollRad)
-            );
-            return cachedEulerAngles;
-        }
-    }
-
-    private record EulerAngles(double pitch, double yaw, double roll) {
-    }
-
-    private record ResolvedTransform(Vector3D location, Rotation rotation, Vector3D scale) {
-        static final ResolvedTransform IDENTITY = new ResolvedTransform(Vector3D.ZERO, Rotation.ZERO, Vector3D.ONES);
-    }
-
-    private static final class TransformResolver {
-        private final Map<ComponentKey, ComponentDefinition> components;
-        private final Map<ComponentKey, ResolvedTransform> cache = new HashMap<>();
-
-        TransformResolver(Map<ComponentKey, ComponentDefinition> components) {
-            this.components = components;
-        }
-
-        ResolvedTransform resolve(ComponentKey key) {
-            if (key == null) {
-                return ResolvedTransform.IDENTITY;
-            }
-            ResolvedTransform cached = cache.get(key);
-            if (cached != null) {
-                return cached;
-            }
-            ResolvedTransform resolved = resolveInternal(key);
-            cache.put(key, resolved);
-            return resolved;
-        }
-
-        private ResolvedTransform resolveInternal(ComponentKey key) {
-            ComponentDefinition definition = components.get(key);
-            if (definition == null) {
-                return ResolvedTransform.IDENTITY;
-            }
-            ResolvedTransform parent = resolve(definition.parentKey());
-            Vector3D scaledLocation = definition.localTransform().location().multiply(parent.scale());
-            Vector3D rotatedLocation = parent.rotation().rotate(scaledLocation);
-            Vector3D worldLocation = parent.location().add(rotatedLocation);
-            Rotation worldRotation = parent.rotation().add(definition.localTransform().rotation());
-            Vector3D worldScale = parent.scale().multiply(definition.scale());
-            return new ResolvedTransform(worldLocation, worldRotation, worldScale);
-        }
-    }
-
     private record ObjectiveVolume(ObjectiveObject object, double radius) {
     }
 }
\ No newline at end of file
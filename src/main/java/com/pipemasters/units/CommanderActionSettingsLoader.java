@@ -1,23 +1,24 @@
 package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.DependencyRecorder;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 final class CommanderActionSettingsLoader {
-    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
     private final AssetResolver resolver;
-    private final Map<Path, Map<String, CommanderActionSettings>> cache = new HashMap<>();
+    private final Map<Path, DependencyRecorder.Memoized<Map<String, CommanderActionSettings>>> cache = new ConcurrentHashMap<>();
 
-    CommanderActionSettingsLoader(ObjectMapper mapper, Path rootDir) {
-        this.mapper = mapper;
+    CommanderActionSettingsLoader(JsonDocumentCache documents, Path rootDir) {
+        this.documents = documents;
         this.resolver = new AssetResolver(rootDir);
     }
 
@@ -34,14 +35,14 @@ final class CommanderActionSettingsLoader {
         if (resolved == null || !Files.exists(resolved)) {
             return CommanderActionSettings.UNKNOWN;
         }
-        Map<String, CommanderActionSettings> map = cache.computeIfAbsent(resolved, this::readSettingsFile);
+        Map<String, CommanderActionSettings> map = LoaderCacheEvent.memoize(CommanderActionSettingsLoader.class, cache, resolved, this::readSettingsFile);
         return map.getOrDefault(settingsName, CommanderActionSettings.UNKNOWN);
     }
 
     private Map<String, CommanderActionSettings> readSettingsFile(Path path) {
         Map<String, CommanderActionSettings> result = new HashMap<>();
         try {
-            JsonNode root = mapper.readTree(path.toFile());
+            JsonNode root = documents.read(path);
             if (!root.isArray()) {
                 return result;
             }
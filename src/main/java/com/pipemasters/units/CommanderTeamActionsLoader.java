@@ -1,11 +1,11 @@
 package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.DependencyRecorder;
 import com.pipemasters.util.MissingAssetLogger;
 
 import java.io.IOException;
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 final class CommanderTeamActionsLoader {
@@ -31,14 +32,14 @@ final class CommanderTeamActionsLoader {
             "SquadGame/Plugins/Mods/Steel_Division/Content/Settings/Actions/Commander/SD_DT_TeamCommandActions.json"
     );
 
-    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
     private final AssetResolver resolver;
     private final MissingAssetLogger missingAssetLogger;
     private final Map<String, List<String>> teamToAssets = new HashMap<>();
-    private final Map<String, CommanderTeamAction> actionCache = new HashMap<>();
+    private final Map<String, DependencyRecorder.Memoized<CommanderTeamAction>> actionCache = new ConcurrentHashMap<>();
 
-    CommanderTeamActionsLoader(ObjectMapper mapper, Path rootDir, MissingAssetLogger missingAssetLogger) {
-        this.mapper = mapper;
+    CommanderTeamActionsLoader(JsonDocumentCache documents, Path rootDir, MissingAssetLogger missingAssetLogger) {
+        this.documents = documents;
         this.resolver = new AssetResolver(rootDir);
         this.missingAssetLogger = missingAssetLogger;
         loadTeamTables(rootDir);
@@ -186,7 +187,7 @@ final class CommanderTeamActionsLoader {
 
     private void parsePotentialTeamTable(Path file) {
         try {
-            JsonNode root = mapper.readTree(file.toFile());
+            JsonNode root = documents.read(file);
             if (!root.isArray() || root.isEmpty()) {
                 return;
             }
@@ -253,7 +254,7 @@ final class CommanderTeamActionsLoader {
         if (assetPath == null || assetPath.isBlank()) {
             return null;
         }
-        return actionCache.computeIfAbsent(assetPath, this::readActionFromAsset);
+        return LoaderCacheEvent.memoize(CommanderTeamActionsLoader.class, actionCache, assetPath, this::readActionFromAsset);
     }
 
     private CommanderTeamAction readActionFromAsset(String assetPath) {
@@ -297,7 +298,7 @@ final class CommanderTeamActionsLoader {
                 break;
             }
 
-            JsonNode root = mapper.readTree(currentPath.toFile());
+            JsonNode root = documents.read(currentPath);
             if (!root.isArray()) {
                 LOGGER.debug("Commander action asset '{}' did not contain an array root.", currentPath);
                 break;
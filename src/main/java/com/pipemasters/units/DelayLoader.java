@@ -1,11 +1,11 @@
 package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.DependencyRecorder;
 import com.pipemasters.util.MissingAssetLogger;
 
 import java.io.IOException;
@@ -18,14 +18,14 @@ final class DelayLoader {
     private static final Logger LOGGER = LogManager.getLogger(DelayLoader.class);
     private static final double TICKS_PER_MINUTE = 600_000_000d;
 
-    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
     private final AssetResolver resolver;
-    private final Map<Path, DelaySettings> cache = new ConcurrentHashMap<>();
+    private final Map<Path, DependencyRecorder.Memoized<DelaySettings>> cache = new ConcurrentHashMap<>();
     private final MissingAssetLogger logger;
 
 
-    DelayLoader(ObjectMapper mapper, Path rootDir, MissingAssetLogger logger) {
-        this.mapper = mapper;
+    DelayLoader(JsonDocumentCache documents, Path rootDir, MissingAssetLogger logger) {
+        this.documents = documents;
         this.resolver = new AssetResolver(rootDir);
         this.logger = logger;
     }
@@ -53,13 +53,13 @@ final class DelayLoader {
             return DelaySettings.NONE;
         }
         LOGGER.debug("Loading delay settings from '{}'", resolved);
-        return cache.computeIfAbsent(resolved, this::readDelayFile);
+        return LoaderCacheEvent.memoize(DelayLoader.class, cache, resolved, this::readDelayFile);
     }
 
     private DelaySettings readDelayFile(Path path) {
         try {
             LOGGER.trace("Reading delay settings file '{}'", path);
-            JsonNode root = mapper.readTree(path.toFile());
+            JsonNode root = documents.read(path);
             if (!root.isArray()) {
                 LOGGER.warn("Delay settings file '{}' is not an array node.", path);
                 return DelaySettings.NONE;
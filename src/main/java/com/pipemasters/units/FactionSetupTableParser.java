@@ -2,6 +2,7 @@ package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.util.JsonFileInput;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -31,7 +32,7 @@ final class FactionSetupTableParser {
             return Map.of();
         }
         LOGGER.info("Parsing faction setup table from '{}'", path);
-        JsonNode root = mapper.readTree(path.toFile());
+        JsonNode root = JsonFileInput.readTree(mapper, path);
         Map<String, FactionSetupRow> rows = new HashMap<>();
         if (!root.isArray()) {
             LOGGER.warn("Faction setup table '{}' is not an array node.", path);
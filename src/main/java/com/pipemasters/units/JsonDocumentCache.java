@@ -0,0 +1,191 @@
+package com.pipemasters.units;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.util.DependencyRecorder;
+import com.pipemasters.util.JsonFileInput;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class JsonDocumentCache {
+    private static final Logger LOGGER = LogManager.getLogger(JsonDocumentCache.class);
+    private static final String PROPERTY_MAX_BYTES = "units.documentCache.maxBytes";
+    private static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+
+    private final ObjectMapper mapper;
+    private final long maxWeight;
+    private final LinkedHashMap<Path, CachedDocument> documents = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Path, CompletableFuture<JsonNode>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long currentWeight;
+
+    JsonDocumentCache(ObjectMapper mapper) {
+        this(mapper, Long.getLong(PROPERTY_MAX_BYTES, DEFAULT_MAX_BYTES));
+    }
+
+    JsonDocumentCache(ObjectMapper mapper, long maxWeight) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.maxWeight = Math.max(0L, maxWeight);
+    }
+
+    JsonNode read(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        DependencyRecorder.touch(key);
+        LoaderCacheEvent event = new LoaderCacheEvent();
+        event.begin();
+        JsonNode cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            event.complete(JsonDocumentCache.class, key, true);
+            return cached;
+        }
+
+        CompletableFuture<JsonNode> loading = new CompletableFuture<>();
+        CompletableFuture<JsonNode> existing = inFlight.putIfAbsent(key, loading);
+        if (existing != null) {
+            hits.incrementAndGet();
+            JsonNode root = await(existing);
+            event.complete(JsonDocumentCache.class, key, true);
+            return root;
+        }
+
+        try {
+            cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                loading.complete(cached);
+                event.complete(JsonDocumentCache.class, key, true);
+                return cached;
+            }
+            misses.incrementAndGet();
+            long lastModified = Files.getLastModifiedTime(key).toMillis();
+            JsonNode root = JsonFileInput.readTree(mapper, key);
+            store(key, root, Files.size(key), lastModified);
+            loading.complete(root);
+            event.complete(JsonDocumentCache.class, key, false);
+            return root;
+        } catch (Throwable e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    void logStatistics() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        double hitRate = total == 0 ? 0.0 : (hitCount * 100.0) / total;
+        int size;
+        long weight;
+        synchronized (documents) {
+            size = documents.size();
+            weight = currentWeight;
+        }
+        LOGGER.info("Document cache: {} read(s), {} hit(s) ({}%), {} parsed, {} evicted, {} document(s) / {} KiB retained.",
+                total,
+                hitCount,
+                String.format("%.1f", hitRate),
+                misses.get(),
+                evictions.get(),
+                size,
+                weight / 1024);
+    }
+
+    private JsonNode lookup(Path key) {
+        synchronized (documents) {
+            CachedDocument document = documents.get(key);
+            return document != null ? document.root() : null;
+        }
+    }
+
+    int dropChanged() {
+        int dropped = 0;
+        synchronized (documents) {
+            Iterator<Map.Entry<Path, CachedDocument>> iterator = documents.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, CachedDocument> entry = iterator.next();
+                if (!entry.getValue().isCurrent(entry.getKey())) {
+                    currentWeight -= entry.getValue().weight();
+                    iterator.remove();
+                    dropped++;
+                }
+            }
+        }
+        if (dropped > 0) {
+            LOGGER.info("Dropped {} cached document(s) that changed on disk.", dropped);
+        }
+        return dropped;
+    }
+
+    private void store(Path key, JsonNode root, long weight, long lastModified) {
+        if (weight > maxWeight) {
+            return;
+        }
+        synchronized (documents) {
+            CachedDocument previous = documents.put(key, new CachedDocument(root, weight, lastModified));
+            if (previous != null) {
+                currentWeight -= previous.weight();
+            }
+            currentWeight += weight;
+            Iterator<Map.Entry<Path, CachedDocument>> iterator = documents.entrySet().iterator();
+            while (currentWeight > maxWeight && iterator.hasNext()) {
+                Map.Entry<Path, CachedDocument> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                currentWeight -= eldest.getValue().weight();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private JsonNode await(CompletableFuture<JsonNode> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a shared document load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private record CachedDocument(JsonNode root, long weight, long lastModified) {
+        boolean isCurrent(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return attributes.size() == weight && attributes.lastModifiedTime().toMillis() == lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
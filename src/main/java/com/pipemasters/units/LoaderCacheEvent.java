@@ -0,0 +1,53 @@
+package com.pipemasters.units;
+
+import com.pipemasters.util.DependencyRecorder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Map;
+import java.util.function.Function;
+
+@Name("com.pipemasters.LoaderCache")
+@Label("Loader Cache Lookup")
+@Category({"FModelToSC", "Units"})
+@Description("Lookup in one of the units loader caches; misses include the time spent loading")
+@StackTrace(false)
+final class LoaderCacheEvent extends Event {
+    @Label("Loader")
+    String loader;
+
+    @Label("Key")
+    String key;
+
+    @Label("Hit")
+    boolean hit;
+
+    static <K, V> V memoize(Class<?> loader,
+                            Map<K, DependencyRecorder.Memoized<V>> cache,
+                            K key,
+                            Function<? super K, ? extends V> load) {
+        LoaderCacheEvent event = new LoaderCacheEvent();
+        if (!event.isEnabled()) {
+            return DependencyRecorder.memoize(cache, key, load);
+        }
+        event.begin();
+        boolean hit = cache.containsKey(key);
+        V value = DependencyRecorder.memoize(cache, key, load);
+        event.complete(loader, key, hit);
+        return value;
+    }
+
+    void complete(Class<?> loader, Object key, boolean hit) {
+        end();
+        if (shouldCommit()) {
+            this.loader = loader.getSimpleName();
+            this.key = String.valueOf(key);
+            this.hit = hit;
+            commit();
+        }
+    }
+}
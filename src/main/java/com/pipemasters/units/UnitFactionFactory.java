@@ -23,6 +23,19 @@ public final class UnitFactionFactory {
         return new TeamFactions(true, List.copyOf(team1Factions), List.copyOf(team2Factions));
     }
 
+    public TeamFactions fromUnits(UnitsIndex index) {
+        if (index == null) {
+            return null;
+        }
+        TeamFactions cached = index.factionsFromUnits();
+        if (cached != null) {
+            return cached;
+        }
+        TeamFactions factions = fromUnits(index.units());
+        index.factionsFromUnits(factions);
+        return factions;
+    }
+
     private List<FactionConfig> buildFactionConfigs(List<Unit> units) {
         if (units == null || units.isEmpty()) {
             return List.of();
@@ -0,0 +1,72 @@
+package com.pipemasters.units;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class UnitsCache {
+    private static final Logger LOGGER = LogManager.getLogger(UnitsCache.class);
+
+    private final ObjectMapper mapper;
+    private final Map<Path, CachedUnits> entries = new ConcurrentHashMap<>();
+
+    public UnitsCache(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    }
+
+    public UnitsIndex load(Path unitsPath) throws IOException {
+        Objects.requireNonNull(unitsPath, "unitsPath");
+        Path normalized = unitsPath.toAbsolutePath().normalize();
+        LoaderCacheEvent event = new LoaderCacheEvent();
+        event.begin();
+        FileStamp stamp = FileStamp.of(normalized);
+
+        CachedUnits cached = entries.get(normalized);
+        if (cached != null && cached.stamp().equals(stamp)) {
+            event.complete(UnitsCache.class, normalized, true);
+            return cached.index();
+        }
+
+        try {
+            UnitsIndex index = entries.compute(normalized, (path, existing) -> {
+                if (existing != null && existing.stamp().equals(stamp)) {
+                    return existing;
+                }
+                return readUnits(path, stamp);
+            }).index();
+            event.complete(UnitsCache.class, normalized, false);
+            return index;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private CachedUnits readUnits(Path path, FileStamp stamp) {
+        LOGGER.info("Loading units data from '{}'.", path);
+        try {
+            Units units = mapper.readValue(path.toFile(), Units.class);
+            return new CachedUnits(stamp, UnitsIndex.of(units));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record CachedUnits(FileStamp stamp, UnitsIndex index) {
+    }
+
+    private record FileStamp(long lastModifiedMillis, long size) {
+        static FileStamp of(Path path) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.pipemasters.units;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.util.FileFingerprint;
+import com.pipemasters.util.FileFingerprints;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+final class UnitsDependencies {
+    private static final Logger LOGGER = LogManager.getLogger(UnitsDependencies.class);
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".deps.json";
+    private static final String BUILD_STAMP = FileFingerprints.codeStamp(UnitsDependencies.class);
+
+    private final ObjectMapper mapper;
+    private final Path dependencyFile;
+    private final String baseDir;
+    private final FileFingerprints fingerprints = new FileFingerprints();
+    private final Map<String, FileFingerprint> previousFiles = new HashMap<>();
+    private final Map<String, FactionRecord> previousFactions = new HashMap<>();
+    private final Map<String, Unit> previousUnits = new HashMap<>();
+    private final Map<String, FileFingerprint> files = new TreeMap<>();
+    private final Map<String, FactionRecord> factions = new TreeMap<>();
+    private List<String> globalDependencies = List.of();
+
+    private UnitsDependencies(ObjectMapper mapper, Path dependencyFile, Path baseDir) {
+        this.mapper = mapper;
+        this.dependencyFile = dependencyFile;
+        this.baseDir = baseDir.toString();
+    }
+
+    static UnitsDependencies load(ObjectMapper mapper, Path unitsPath, Path baseDir, boolean force) {
+        Objects.requireNonNull(mapper, "mapper");
+        Path normalized = unitsPath.toAbsolutePath().normalize();
+        String fileName = normalized.getFileName().toString();
+        String stem = fileName.endsWith(".json") ? fileName.substring(0, fileName.length() - ".json".length()) : fileName;
+        UnitsDependencies dependencies = new UnitsDependencies(mapper, normalized.resolveSibling(stem + FILE_SUFFIX), baseDir.toAbsolutePath().normalize());
+        if (force) {
+            LOGGER.info("Ignoring recorded unit dependencies; every faction will be rebuilt.");
+        } else {
+            dependencies.read(normalized);
+        }
+        return dependencies;
+    }
+
+    void checkGlobal(Collection<Path> dependencies) throws IOException {
+        List<String> current = record(dependencies);
+        if (!previousFactions.isEmpty() && !(current.equals(globalDependencies) && matchesPrevious(current))) {
+            LOGGER.info("Shared commander tables changed; every faction will be rebuilt.");
+            previousFactions.clear();
+        }
+        globalDependencies = current;
+    }
+
+    List<ReusedUnit> reuse(String faction, Path setupTable, List<Path> unitFiles) {
+        FactionRecord previous = previousFactions.get(faction);
+        if (previous == null
+                || !previous.setupTable().equals(normalize(setupTable).toString())
+                || !matchesPrevious(List.of(previous.setupTable()))
+                || !previous.unitFiles().equals(unitFiles.stream().map(path -> normalize(path).toString()).toList())) {
+            return null;
+        }
+        List<ReusedUnit> reused = new ArrayList<>(previous.units().size());
+        for (UnitRecord record : previous.units()) {
+            if (!matchesPrevious(record.dependencies())) {
+                return null;
+            }
+            Unit unit = null;
+            if (record.unitObjectName() != null) {
+                unit = previousUnits.get(record.unitObjectName());
+                if (unit == null) {
+                    return null;
+                }
+            }
+            reused.add(new ReusedUnit(unit, record.assignment()));
+        }
+        for (UnitRecord record : previous.units()) {
+            copyPrevious(record.dependencies());
+        }
+        copyPrevious(List.of(previous.setupTable()));
+        factions.put(faction, previous);
+        return reused;
+    }
+
+    void recordFaction(String faction, Path setupTable, List<Path> unitFiles, List<BuiltUnit> units) throws IOException {
+        List<UnitRecord> records = new ArrayList<>(units.size());
+        for (BuiltUnit unit : units) {
+            String unitObjectName = unit.unit() != null ? unit.unit().unitObjectName() : null;
+            records.add(new UnitRecord(normalize(unit.file()).toString(), unitObjectName, unit.assignment(), record(unit.dependencies())));
+        }
+        List<String> table = record(List.of(setupTable));
+        factions.put(faction, new FactionRecord(
+                table.getFirst(),
+                unitFiles.stream().map(path -> normalize(path).toString()).toList(),
+                records));
+    }
+
+    void save() {
+        if (BUILD_STAMP == null) {
+            return;
+        }
+        try {
+            Path temp = dependencyFile.resolveSibling(dependencyFile.getFileName() + ".tmp");
+            mapper.writeValue(temp.toFile(), new DependencyFile(FORMAT_VERSION, baseDir, BUILD_STAMP, globalDependencies, files, factions));
+            Files.move(temp, dependencyFile, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Recorded dependencies of {} faction(s) in '{}'.", factions.size(), dependencyFile);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to save unit dependencies '{}': {}", dependencyFile, e.getMessage());
+        }
+    }
+
+    private void read(Path unitsPath) {
+        if (BUILD_STAMP == null || !Files.isRegularFile(dependencyFile) || !Files.isRegularFile(unitsPath)) {
+            return;
+        }
+        try {
+            DependencyFile file = mapper.readValue(dependencyFile.toFile(), DependencyFile.class);
+            if (file.version() != FORMAT_VERSION || !baseDir.equals(file.baseDir()) || !BUILD_STAMP.equals(file.buildStamp())) {
+                LOGGER.info("Recorded unit dependencies in '{}' belong to another build or input directory; rebuilding every faction.", dependencyFile);
+                return;
+            }
+            Units units = mapper.readValue(unitsPath.toFile(), Units.class);
+            for (List<Unit> team : List.of(units.team1Units(), units.team2Units())) {
+                for (Unit unit : team) {
+                    previousUnits.putIfAbsent(unit.unitObjectName(), unit);
+                }
+            }
+            previousFiles.putAll(file.files());
+            previousFactions.putAll(file.factions());
+            globalDependencies = file.global();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Discarding unreadable unit dependencies '{}': {}", dependencyFile, e.getMessage());
+            previousFiles.clear();
+            previousFactions.clear();
+            previousUnits.clear();
+            globalDependencies = List.of();
+        }
+    }
+
+    private boolean matchesPrevious(List<String> paths) {
+        for (String path : paths) {
+            FileFingerprint recorded = previousFiles.get(path);
+            if (recorded == null || !fingerprints.matches(recorded)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void copyPrevious(List<String> paths) {
+        for (String path : paths) {
+            FileFingerprint fingerprint = fingerprints.isHashed(Path.of(path))
+                    ? currentFingerprint(path)
+                    : previousFiles.get(path);
+            if (fingerprint != null) {
+                files.put(path, fingerprint);
+            }
+        }
+    }
+
+    private FileFingerprint currentFingerprint(String path) {
+        try {
+            return fingerprints.fingerprint(Path.of(path));
+        } catch (IOException e) {
+            return previousFiles.get(path);
+        }
+    }
+
+    private List<String> record(Collection<Path> paths) throws IOException {
+        TreeSet<String> recorded = new TreeSet<>();
+        for (Path path : paths) {
+            FileFingerprint fingerprint = fingerprints.fingerprint(path);
+            files.put(fingerprint.path(), fingerprint);
+            recorded.add(fingerprint.path());
+        }
+        return List.copyOf(recorded);
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    record ReusedUnit(Unit unit, UnitsParser.TeamAssignment assignment) {
+    }
+
+    record BuiltUnit(Path file, Unit unit, UnitsParser.TeamAssignment assignment, Collection<Path> dependencies) {
+    }
+
+    private record DependencyFile(int version,
+                                  String baseDir,
+                                  String buildStamp,
+                                  List<String> global,
+                                  Map<String, FileFingerprint> files,
+                                  Map<String, FactionRecord> factions) {
+    }
+
+    private record FactionRecord(String setupTable, List<String> unitFiles, List<UnitRecord> units) {
+    }
+
+    private record UnitRecord(String file, String unitObjectName, UnitsParser.TeamAssignment assignment, List<String> dependencies) {
+    }
+}
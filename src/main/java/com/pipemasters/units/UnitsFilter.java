@@ -11,7 +11,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 public class UnitsFilter {
@@ -22,41 +21,31 @@ public class UnitsFilter {
         if (teamConfiguration == null || teamConfiguration.factions() == null) {
             return units;
         }
+        return filter(UnitsIndex.of(units), teamConfiguration);
+    }
 
-        Map<String, Unit> unitsByName = indexUnits(units);
+    public Units filter(UnitsIndex index, LayerTeamConfiguration teamConfiguration) {
+        if (index == null) {
+            return null;
+        }
+        Units units = index.units();
+        if (teamConfiguration == null || teamConfiguration.factions() == null) {
+            return units;
+        }
 
         List<Unit> team1Units = filterTeamUnits(units.team1Units(),
                 teamConfiguration.factions().team1Units(),
-                unitsByName);
+                index);
         List<Unit> team2Units = filterTeamUnits(units.team2Units(),
                 teamConfiguration.factions().team2Units(),
-                unitsByName);
+                index);
 
         return new Units(team1Units, team2Units);
     }
 
-    private Map<String, Unit> indexUnits(Units units) {
-        Map<String, Unit> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        addToIndex(byName, units.team1Units());
-        addToIndex(byName, units.team2Units());
-        return byName;
-    }
-
-    private void addToIndex(Map<String, Unit> index, List<Unit> units) {
-        if (units == null) {
-            return;
-        }
-        for (Unit unit : units) {
-            if (unit == null || unit.unitObjectName() == null || unit.unitObjectName().isBlank()) {
-                continue;
-            }
-            index.putIfAbsent(unit.unitObjectName(), unit);
-        }
-    }
-
     private List<Unit> filterTeamUnits(List<Unit> units,
                                        List<FactionConfig> factionConfigs,
-                                       Map<String, Unit> unitsByName) {
+                                       UnitsIndex index) {
         if (units == null || units.isEmpty() || factionConfigs == null || factionConfigs.isEmpty()) {
             return units;
         }
@@ -93,7 +82,7 @@ public class UnitsFilter {
 
             if (factionConfig.defaultUnit() != null && !factionConfig.defaultUnit().isBlank()) {
                 allowedUnits.add(factionConfig.defaultUnit());
-                String defaultUnitType = determineUnitType(factionConfig.defaultUnit(), unitsByName);
+                String defaultUnitType = determineUnitType(factionConfig.defaultUnit(), index);
                 if (!defaultUnitType.isEmpty()) {
                     allowedTypes.add(defaultUnitType);
                 }
@@ -176,12 +165,12 @@ public class UnitsFilter {
         return unitName;
     }
 
-    private String determineUnitType(String unitName, Map<String, Unit> unitsByName) {
+    private String determineUnitType(String unitName, UnitsIndex index) {
         if (unitName == null || unitName.isBlank()) {
             return "";
         }
 
-        Unit matching = unitsByName.get(unitName);
+        Unit matching = index.findByName(unitName);
         if (matching != null && matching.type() != null && !matching.type().isBlank()) {
             return normalizeType(matching.type());
         }
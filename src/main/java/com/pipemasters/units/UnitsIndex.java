@@ -0,0 +1,77 @@
+package com.pipemasters.units;
+
+import com.pipemasters.layerdata.TeamFactions;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+public final class UnitsIndex {
+    private final Units units;
+    private final Map<String, Unit> unitsByName;
+    private volatile UnitsIndex mirrored;
+    private volatile TeamFactions factionsFromUnits;
+
+    private UnitsIndex(Units units) {
+        this.units = units;
+        this.unitsByName = Collections.unmodifiableMap(indexUnits(units));
+    }
+
+    public static UnitsIndex of(Units units) {
+        return new UnitsIndex(Objects.requireNonNull(units, "units"));
+    }
+
+    public Units units() {
+        return units;
+    }
+
+    public Unit findByName(String unitObjectName) {
+        if (unitObjectName == null || unitObjectName.isBlank()) {
+            return null;
+        }
+        return unitsByName.get(unitObjectName);
+    }
+
+    public UnitsIndex mirrored() {
+        UnitsIndex result = mirrored;
+        if (result == null) {
+            synchronized (this) {
+                result = mirrored;
+                if (result == null) {
+                    result = new UnitsIndex(new Units(units.team1Units(), units.team1Units()));
+                    mirrored = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    TeamFactions factionsFromUnits() {
+        return factionsFromUnits;
+    }
+
+    void factionsFromUnits(TeamFactions factions) {
+        this.factionsFromUnits = factions;
+    }
+
+    private static Map<String, Unit> indexUnits(Units units) {
+        Map<String, Unit> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        addToIndex(byName, units.team1Units());
+        addToIndex(byName, units.team2Units());
+        return byName;
+    }
+
+    private static void addToIndex(Map<String, Unit> index, List<Unit> units) {
+        if (units == null) {
+            return;
+        }
+        for (Unit unit : units) {
+            if (unit == null || unit.unitObjectName() == null || unit.unitObjectName().isBlank()) {
+                continue;
+            }
+            index.putIfAbsent(unit.unitObjectName(), unit);
+        }
+    }
+}
@@ -2,47 +2,72 @@ package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pipemasters.util.WorkerExecutors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class UnitsMain {
     private static final Logger LOGGER = LogManager.getLogger(UnitsMain.class);
+    private static final String FORCE_OPTION = "--force";
 
     private UnitsMain() {
     }
 
     public static void main(String[] args) throws IOException {
-        if (args.length != 1) {
-            LOGGER.error("Usage: java -jar app.jar <path-to-faction-setup-root>");
+        List<String> positional = new ArrayList<>();
+        boolean virtualThreads = false;
+        boolean force = false;
+        for (String arg : args) {
+            if (arg.equals(WorkerExecutors.VIRTUAL_THREADS_OPTION)) {
+                virtualThreads = true;
+            } else if (arg.equals(FORCE_OPTION)) {
+                force = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        if (positional.size() < 1 || positional.size() > 2) {
+            LOGGER.error("Usage: java -jar app.jar <path-to-faction-setup-root> [threads] [--virtual-threads] [--force]");
             System.exit(1);
         }
 
-        Path baseDir = Path.of(args[0]).toAbsolutePath().normalize();
+        Path baseDir = Path.of(positional.get(0)).toAbsolutePath().normalize();
         if (!Files.exists(baseDir)) {
             LOGGER.error("Input directory '{}' does not exist.", baseDir);
             System.exit(1);
         }
 
+        int threads = virtualThreads ? WorkerExecutors.DEFAULT_VIRTUAL_CONCURRENCY : 8;
+        if (positional.size() == 2) {
+            try {
+                threads = Integer.parseInt(positional.get(1));
+            } catch (NumberFormatException e) {
+                LOGGER.error("Invalid thread count '{}'. Expected a positive integer.", positional.get(1));
+                System.exit(1);
+            }
+            if (threads < 1) {
+                LOGGER.error("Thread count must be >= 1. Received {}.", threads);
+                System.exit(1);
+            }
+        }
+
         ObjectMapper mapper = new ObjectMapper();
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
 
-        UnitsParser parser = new UnitsParser(mapper, baseDir);
+        Path outputPath = Path.of("").toAbsolutePath().normalize().resolve("output").resolve("units.json");
         LOGGER.info("Starting units export using base directory '{}'", baseDir);
-        Units units = parser.parse();
-        LOGGER.info("Parsed {} Team 1 units and {} Team 2 units.", units.team1Units().size(), units.team2Units().size());
-
-        Path projectRoot = Path.of("").toAbsolutePath().normalize();
-        Path outputDir = projectRoot.resolve("output");
-        Files.createDirectories(outputDir);
-
-        Path outputPath = outputDir.resolve("units.json");
-        Files.deleteIfExists(outputPath);
-        mapper.writeValue(outputPath.toFile(), units);
-
-        LOGGER.info("Wrote units JSON to '{}'", outputPath);
+        if (virtualThreads) {
+            LOGGER.info("Using virtual threads for unit parsing with at most {} file(s) in flight.", threads);
+        } else {
+            LOGGER.info("Using {} thread(s) for unit parsing.", threads);
+        }
+        new UnitsWorkspace(mapper).exportUnits(baseDir, outputPath, threads, virtualThreads, force);
     }
 }
\ No newline at end of file
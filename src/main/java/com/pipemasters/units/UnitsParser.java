@@ -6,17 +6,26 @@ import com.fasterxml.jackson.databind.node.MissingNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.pipemasters.util.DependencyRecorder;
+import com.pipemasters.util.JsonFileInput;
 import com.pipemasters.util.MissingAssetLogger;
+import com.pipemasters.util.WorkerExecutors;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -32,20 +41,30 @@ final class UnitsParser {
     private final VehicleSettingsLoader vehicleSettingsLoader;
     private final CommanderActionSettingsLoader actionSettingsLoader;
     private final DelayLoader delayLoader;
+    private final JsonDocumentCache documents;
     private final FactionSetupTableParser tableParser;
     private final MissingAssetLogger missingAssetLogger;
     private final CommanderTeamActionsLoader teamActionsLoader;
+    private final Set<Path> globalDependencies;
 
     UnitsParser(ObjectMapper mapper, Path baseDir) {
+        this(mapper, baseDir, new JsonDocumentCache(mapper));
+    }
+
+    UnitsParser(ObjectMapper mapper, Path baseDir, JsonDocumentCache documents) {
         this.mapper = Objects.requireNonNull(mapper, "mapper");
         this.baseDir = Objects.requireNonNull(baseDir, "baseDir");
         this.rootDir = resolveRootDirectory(baseDir);
         this.missingAssetLogger = new MissingAssetLogger(rootDir);
-        this.vehicleSettingsLoader = new VehicleSettingsLoader(mapper, rootDir, missingAssetLogger);
-        this.actionSettingsLoader = new CommanderActionSettingsLoader(mapper, rootDir);
-        this.delayLoader = new DelayLoader(mapper, rootDir, missingAssetLogger);
+        this.documents = Objects.requireNonNull(documents, "documents");
+        this.vehicleSettingsLoader = new VehicleSettingsLoader(documents, rootDir, missingAssetLogger);
+        this.actionSettingsLoader = new CommanderActionSettingsLoader(documents, rootDir);
+        this.delayLoader = new DelayLoader(documents, rootDir, missingAssetLogger);
         this.tableParser = new FactionSetupTableParser(mapper);
-        this.teamActionsLoader = new CommanderTeamActionsLoader(mapper, rootDir, missingAssetLogger);
+        DependencyRecorder.Memoized<CommanderTeamActionsLoader> teamActions = DependencyRecorder.capture(
+                () -> new CommanderTeamActionsLoader(documents, rootDir, missingAssetLogger));
+        this.teamActionsLoader = teamActions.value();
+        this.globalDependencies = teamActions.dependencies();
     }
 
     private Path resolveRootDirectory(Path start) {
@@ -74,6 +93,18 @@ final class UnitsParser {
     }
 
     Units parse() throws IOException {
+        return parse(1);
+    }
+
+    Units parse(int threads) throws IOException {
+        return parse(threads, false);
+    }
+
+    Units parse(int threads, boolean virtualThreads) throws IOException {
+        return parse(threads, virtualThreads, null);
+    }
+
+    Units parse(int threads, boolean virtualThreads, UnitsDependencies dependencies) throws IOException {
         List<Unit> team1 = new ArrayList<>();
         List<Unit> team2 = new ArrayList<>();
 
@@ -82,7 +113,14 @@ final class UnitsParser {
             return new Units(List.of(), List.of());
         }
 
+        if (dependencies != null) {
+            dependencies.checkGlobal(globalDependencies);
+        }
+
         LOGGER.info("Scanning factions under '{}'", baseDir);
+        List<Faction> factions = new ArrayList<>();
+        Map<String, List<UnitsDependencies.ReusedUnit>> reused = new HashMap<>();
+        List<UnitFile> unitFiles = new ArrayList<>();
         try (Stream<Path> factionDirs = Files.list(baseDir)) {
             for (Path factionDir : factionDirs.collect(Collectors.toList())) {
                 if (!Files.isDirectory(factionDir)) {
@@ -94,20 +132,108 @@ final class UnitsParser {
                     continue;
                 }
                 LOGGER.info("Processing faction directory '{}'", factionDir);
-                parseFactionDirectory(factionDir, team1, team2);
+                Faction faction = collectFactionUnitFiles(factionDir);
+                factions.add(faction);
+                List<UnitsDependencies.ReusedUnit> previous = dependencies != null
+                        ? dependencies.reuse(faction.name(), faction.setupTable(), faction.files())
+                        : null;
+                if (previous != null) {
+                    LOGGER.info("Dependencies of faction '{}' are unchanged; reusing {} unit file(s) from the previous output.",
+                            faction.name(), previous.size());
+                    reused.put(faction.name(), previous);
+                } else {
+                    unitFiles.addAll(faction.unitFiles());
+                }
             }
         }
 
+        Map<Path, ParsedUnit> parsed = new HashMap<>();
+        int threadCount = Math.max(1, threads);
+        if (threadCount == 1 || unitFiles.size() <= 1) {
+            for (UnitFile unitFile : unitFiles) {
+                parsed.put(unitFile.file(), parseTrackedUnitFile(unitFile));
+            }
+        } else {
+            parseInParallel(unitFiles, threadCount, virtualThreads, parsed);
+        }
+
+        for (Faction faction : factions) {
+            List<UnitsDependencies.ReusedUnit> previous = reused.get(faction.name());
+            if (previous != null) {
+                for (UnitsDependencies.ReusedUnit unit : previous) {
+                    addUnit(unit.unit(), unit.assignment(), team1, team2);
+                }
+                continue;
+            }
+            List<UnitsDependencies.BuiltUnit> built = new ArrayList<>(faction.unitFiles().size());
+            for (UnitFile unitFile : faction.unitFiles()) {
+                ParsedUnit unit = parsed.get(unitFile.file());
+                addUnit(unit.unit(), unit.assignment(), team1, team2);
+                built.add(new UnitsDependencies.BuiltUnit(unitFile.file(), unit.unit(), unit.assignment(), unit.dependencies()));
+            }
+            if (dependencies != null) {
+                dependencies.recordFaction(faction.name(), faction.setupTable(), faction.files(), built);
+            }
+        }
+
+        documents.logStatistics();
+        missingAssetLogger.flush();
         return new Units(List.copyOf(team1), List.copyOf(team2));
     }
 
-    private void parseFactionDirectory(Path factionDir, List<Unit> team1, List<Unit> team2) throws IOException {
+    private void parseInParallel(List<UnitFile> unitFiles,
+                                 int threadCount,
+                                 boolean virtualThreads,
+                                 Map<Path, ParsedUnit> parsed) throws IOException {
+        int concurrency = Math.min(threadCount, unitFiles.size());
+        if (virtualThreads) {
+            LOGGER.info("Parsing {} unit file(s) on virtual threads with at most {} in flight.", unitFiles.size(), concurrency);
+        } else {
+            LOGGER.info("Parsing {} unit file(s) using {} thread(s).", unitFiles.size(), concurrency);
+        }
+        ExecutorService executor = WorkerExecutors.newWorkerPool("units-parse", concurrency, virtualThreads);
+        try {
+            List<Future<ParsedUnit>> futures = new ArrayList<>(unitFiles.size());
+            for (UnitFile unitFile : unitFiles) {
+                futures.add(executor.submit(() -> parseTrackedUnitFile(unitFile)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                parsed.put(unitFiles.get(i).file(), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing unit files.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new RuntimeException("Failed to parse unit files.", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ParsedUnit parseTrackedUnitFile(UnitFile unitFile) throws IOException {
+        Set<Path> dependencies = new HashSet<>();
+        dependencies.add(unitFile.file());
+        ParsedUnit parsed = DependencyRecorder.record(dependencies, () -> parseUnitFile(unitFile));
+        return parsed != null
+                ? new ParsedUnit(parsed.unit(), parsed.assignment(), Set.copyOf(dependencies))
+                : new ParsedUnit(null, null, Set.copyOf(dependencies));
+    }
+
+    private Faction collectFactionUnitFiles(Path factionDir) throws IOException {
         String factionName = factionDir.getFileName().toString();
         Path setupTablePath = baseDir.resolve("FactionSetupTable_" + factionName + ".json");
         Map<String, FactionSetupRow> rows = tableParser.parse(setupTablePath);
         FactionSetupRow coreRow = rows.getOrDefault(factionName + "_Core", null);
         LOGGER.debug("Faction '{}' resolved {} setup rows (core present: {}).", factionName, rows.size(), coreRow != null);
 
+        List<UnitFile> unitFiles = new ArrayList<>();
         try (Stream<Path> files = Files.walk(factionDir)) {
             for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
                 if (!file.getFileName().toString().endsWith(".json")) {
@@ -116,21 +242,46 @@ final class UnitsParser {
                 if (file.getFileName().toString().startsWith("FactionSetupTable_")) {
                     continue;
                 }
-                LOGGER.debug("Parsing unit file '{}' for faction '{}'", file, factionName);
-                parseUnitFile(file, rows, coreRow, team1, team2);
+                unitFiles.add(new UnitFile(file, factionName, rows, coreRow));
             }
         }
+        return new Faction(factionName, setupTablePath, unitFiles);
     }
 
-    private void parseUnitFile(Path file,
-                               Map<String, FactionSetupRow> rows,
-                               FactionSetupRow coreRow,
-                               List<Unit> team1,
-                               List<Unit> team2) throws IOException {
-        JsonNode root = mapper.readTree(file.toFile());
+    private void addUnit(Unit unit, TeamAssignment assignment, List<Unit> team1, List<Unit> team2) {
+        if (unit == null) {
+            return;
+        }
+        String unitObjectName = unit.unitObjectName();
+        switch (assignment) {
+            case TEAM2 -> {
+                team2.add(unit);
+                LOGGER.info("Added Team 2 unit '{}' ({} vehicles, {} commander assets).", unitObjectName,
+                        unit.vehicles().size(), unit.commanderAssets().size());
+            }
+            case BOTH -> {
+                team1.add(unit);
+                team2.add(unit);
+                LOGGER.info("Added unit '{}' to both teams ({} vehicles, {} commander assets).", unitObjectName,
+                        unit.vehicles().size(), unit.commanderAssets().size());
+            }
+            case TEAM1 -> {
+                team1.add(unit);
+                LOGGER.info("Added Team 1 unit '{}' ({} vehicles, {} commander assets).", unitObjectName,
+                        unit.vehicles().size(), unit.commanderAssets().size());
+            }
+        }
+    }
+
+    private ParsedUnit parseUnitFile(UnitFile unitFile) throws IOException {
+        Path file = unitFile.file();
+        Map<String, FactionSetupRow> rows = unitFile.rows();
+        FactionSetupRow coreRow = unitFile.coreRow();
+        LOGGER.debug("Parsing unit file '{}' for faction '{}'", file, unitFile.factionName());
+        JsonNode root = JsonFileInput.readTree(mapper, file);
         if (root == null || !root.isArray()) {
             LOGGER.warn("Unit file '{}' is not an array; skipping.", file);
-            return;
+            return null;
         }
 
         Map<String, JsonNode> nodesByName = new HashMap<>();
@@ -147,17 +298,17 @@ final class UnitsParser {
 
         if (factionSetupNode.isMissingNode()) {
             LOGGER.warn("Unit file '{}' does not contain BP_SQFactionSetup_C entry; skipping.", file);
-            return;
+            return null;
         }
 
         String unitObjectName = factionSetupNode.path("Name").asText(null);
         if (unitObjectName == null || unitObjectName.isBlank()) {
             LOGGER.warn("Unit file '{}' has faction setup entry without a Name property; skipping.", file);
-            return;
+            return null;
         }
         if (unitObjectName.endsWith("_Core")) {
             LOGGER.debug("Skipping core unit '{}' in file '{}'", unitObjectName, file);
-            return;
+            return null;
         }
 
         JsonNode properties = factionSetupNode.path("Properties");
@@ -201,24 +352,7 @@ final class UnitsParser {
                 commanderAssets);
 
         TeamAssignment assignment = determineTeamAssignment(file, unitObjectName, rowName, shortName);
-        switch (assignment) {
-            case TEAM2 -> {
-                team2.add(unit);
-                LOGGER.info("Added Team 2 unit '{}' ({} vehicles, {} commander assets).", unitObjectName,
-                        unit.vehicles().size(), unit.commanderAssets().size());
-            }
-            case BOTH -> {
-                team1.add(unit);
-                team2.add(unit);
-                LOGGER.info("Added unit '{}' to both teams ({} vehicles, {} commander assets).", unitObjectName,
-                        unit.vehicles().size(), unit.commanderAssets().size());
-            }
-            case TEAM1 -> {
-                team1.add(unit);
-                LOGGER.info("Added Team 1 unit '{}' ({} vehicles, {} commander assets).", unitObjectName,
-                        unit.vehicles().size(), unit.commanderAssets().size());
-            }
-        }
+        return new ParsedUnit(unit, assignment, Set.of());
     }
 
     private List<UnitVehicle> parseVehicles(JsonNode vehiclesNode, Map<String, JsonNode> nodesByName) {
@@ -440,9 +574,24 @@ final class UnitsParser {
         return null;
     }
 
-    private enum TeamAssignment {
+    enum TeamAssignment {
         TEAM1,
         TEAM2,
         BOTH
     }
-}
\ No newline at end of file
+
+    private record UnitFile(Path file,
+                            String factionName,
+                            Map<String, FactionSetupRow> rows,
+                            FactionSetupRow coreRow) {
+    }
+
+    private record Faction(String name, Path setupTable, List<UnitFile> unitFiles) {
+        List<Path> files() {
+            return unitFiles.stream().map(UnitFile::file).toList();
+        }
+    }
+
+    private record ParsedUnit(Unit unit, TeamAssignment assignment, Set<Path> dependencies) {
+    }
+}
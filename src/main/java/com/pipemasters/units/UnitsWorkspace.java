@@ -0,0 +1,70 @@
+package com.pipemasters.units;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pipemasters.util.AssetResolver;
+import com.pipemasters.vehicles.VehicleExport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public final class UnitsWorkspace {
+    private static final Logger LOGGER = LogManager.getLogger(UnitsWorkspace.class);
+
+    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
+
+    public UnitsWorkspace(ObjectMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.documents = new JsonDocumentCache(mapper);
+    }
+
+    public Units exportUnits(Path baseDir, Path outputPath, int threads, boolean virtualThreads, boolean force) throws IOException {
+        documents.dropChanged();
+        UnitsDependencies dependencies = UnitsDependencies.load(mapper, outputPath, baseDir, force);
+        Units units = new UnitsParser(mapper, baseDir, documents).parse(threads, virtualThreads, dependencies);
+        AssetResolver.flushResolutionCaches();
+        LOGGER.info("Parsed {} Team 1 units and {} Team 2 units.", units.team1Units().size(), units.team2Units().size());
+
+        if (write(outputPath, units)) {
+            LOGGER.info("Wrote units JSON to '{}'", outputPath);
+        } else {
+            LOGGER.info("Units JSON '{}' is unchanged.", outputPath);
+        }
+        dependencies.save();
+        return units;
+    }
+
+    public List<VehicleExport> exportVehicles(Path baseDir, Path outputPath, int threads, boolean virtualThreads) throws IOException {
+        documents.dropChanged();
+        List<VehicleExport> vehicles = new VehiclesParser(mapper, baseDir, documents).parse(threads, virtualThreads);
+        AssetResolver.flushResolutionCaches();
+        LOGGER.info("Parsed {} unique vehicles.", vehicles.size());
+
+        if (write(outputPath, vehicles)) {
+            LOGGER.info("Wrote vehicles JSON to '{}'", outputPath);
+        } else {
+            LOGGER.info("Vehicles JSON '{}' is unchanged.", outputPath);
+        }
+        return vehicles;
+    }
+
+    private boolean write(Path outputPath, Object value) throws IOException {
+        byte[] content = mapper.writeValueAsBytes(value);
+        if (Files.isRegularFile(outputPath) && Arrays.equals(Files.readAllBytes(outputPath), content)) {
+            return false;
+        }
+        Path parent = outputPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.deleteIfExists(outputPath);
+        Files.write(outputPath, content);
+        return true;
+    }
+}
@@ -1,9 +1,9 @@
 package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.DependencyRecorder;
 import com.pipemasters.util.MissingAssetLogger;
 
 import java.io.IOException;
@@ -17,13 +17,13 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 final class VehicleBlueprintLoader {
-    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
     private final AssetResolver resolver;
     private final MissingAssetLogger logger;
-    private final Map<Path, VehicleBlueprintInfo> cache = new ConcurrentHashMap<>();
+    private final Map<Path, DependencyRecorder.Memoized<VehicleBlueprintInfo>> cache = new ConcurrentHashMap<>();
 
-    VehicleBlueprintLoader(ObjectMapper mapper, Path rootDir, MissingAssetLogger logger) {
-        this.mapper = mapper;
+    VehicleBlueprintLoader(JsonDocumentCache documents, Path rootDir, MissingAssetLogger logger) {
+        this.documents = documents;
         this.resolver = new AssetResolver(rootDir);
         this.logger = logger;
     }
@@ -64,18 +64,23 @@ final class VehicleBlueprintLoader {
                     }
                     continue;
                 }
-                VehicleBlueprintInfo info = cache.get(resolved);
-                if (info == null) {
-                    info = readBlueprint(resolved);
-                    cache.put(resolved, info);
+                LoaderCacheEvent event = new LoaderCacheEvent();
+                event.begin();
+                DependencyRecorder.Memoized<VehicleBlueprintInfo> memoized = cache.get(resolved);
+                boolean hit = memoized != null;
+                if (memoized == null) {
+                    memoized = DependencyRecorder.capture(() -> readBlueprint(resolved));
+                    cache.put(resolved, memoized);
                 }
+                event.complete(VehicleBlueprintLoader.class, resolved, hit);
+                VehicleBlueprintInfo info = DependencyRecorder.replay(memoized);
                 if (info.className().isBlank() && !className.isBlank()) {
                     info = new VehicleBlueprintInfo(className,
                             info.driverSeats(),
                             info.passengerSeats(),
                             info.amphibious(),
                             info.atgm());
-                    cache.put(resolved, info);
+                    cache.put(resolved, new DependencyRecorder.Memoized<>(info, memoized.dependencies()));
                 }
                 return info;
             }
@@ -100,7 +105,7 @@ final class VehicleBlueprintLoader {
         boolean atgm = false;
         JsonNode root;
         try {
-            root = mapper.readTree(path.toFile());
+            root = documents.read(path);
             for (JsonNode node : root) {
                 JsonNode properties = node.path("Properties");
                 if (!properties.isObject()) {
@@ -151,13 +156,17 @@ final class VehicleBlueprintLoader {
     }
 
     private VehicleBlueprintInfo readSuperBlueprint(Path superBlueprintPath, Set<Path> visited) {
-        VehicleBlueprintInfo cached = cache.get(superBlueprintPath);
+        LoaderCacheEvent event = new LoaderCacheEvent();
+        event.begin();
+        DependencyRecorder.Memoized<VehicleBlueprintInfo> cached = cache.get(superBlueprintPath);
         if (cached != null) {
-            return cached;
+            event.complete(VehicleBlueprintLoader.class, superBlueprintPath, true);
+            return DependencyRecorder.replay(cached);
         }
-        VehicleBlueprintInfo info = readBlueprint(superBlueprintPath, visited);
-        cache.put(superBlueprintPath, info);
-        return info;
+        DependencyRecorder.Memoized<VehicleBlueprintInfo> memoized = DependencyRecorder.capture(() -> readBlueprint(superBlueprintPath, visited));
+        cache.put(superBlueprintPath, memoized);
+        event.complete(VehicleBlueprintLoader.class, superBlueprintPath, false);
+        return DependencyRecorder.replay(memoized);
     }
 
     private boolean detectAtgm(JsonNode node) {
@@ -240,7 +249,7 @@ final class VehicleBlueprintLoader {
         }
 
         try {
-            JsonNode superRoot = mapper.readTree(superBlueprintPath.toFile());
+            JsonNode superRoot = documents.read(superBlueprintPath);
             VehicleConfigInfo superInfo = loadVehicleConfig(superBlueprintPath, superRoot, visited);
             if (superInfo == null) {
                 return localInfo;
@@ -268,7 +277,7 @@ final class VehicleBlueprintLoader {
             return null;
         }
         try {
-            JsonNode configRoot = mapper.readTree(resolved.toFile());
+            JsonNode configRoot = documents.read(resolved);
             SeatAccumulator accumulator = new SeatAccumulator();
             traverseConfig(configRoot, accumulator);
             return accumulator.toInfo();
@@ -1,11 +1,11 @@
 package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.DependencyRecorder;
 import com.pipemasters.util.MissingAssetLogger;
 
 import java.io.IOException;
@@ -18,13 +18,13 @@ import java.util.concurrent.ConcurrentHashMap;
 
 final class VehicleDataTableLoader {
     private static final Logger LOGGER = LogManager.getLogger(VehicleDataTableLoader.class);
-    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
     private final AssetResolver resolver;
     private final MissingAssetLogger logger;
-    private final Map<Path, Map<String, VehicleDataRow>> cache = new ConcurrentHashMap<>();
+    private final Map<Path, DependencyRecorder.Memoized<Map<String, VehicleDataRow>>> cache = new ConcurrentHashMap<>();
 
-    VehicleDataTableLoader(ObjectMapper mapper, Path rootDir, MissingAssetLogger logger) {
-        this.mapper = mapper;
+    VehicleDataTableLoader(JsonDocumentCache documents, Path rootDir, MissingAssetLogger logger) {
+        this.documents = documents;
         this.resolver = new AssetResolver(rootDir);
         this.logger = logger;
     }
@@ -58,7 +58,7 @@ final class VehicleDataTableLoader {
             return VehicleDataRow.EMPTY;
         }
         LOGGER.trace("Loading vehicle data table '{}'", resolved);
-        Map<String, VehicleDataRow> rows = cache.computeIfAbsent(resolved, this::readDataTable);
+        Map<String, VehicleDataRow> rows = LoaderCacheEvent.memoize(VehicleDataTableLoader.class, cache, resolved, this::readDataTable);
         VehicleDataRow row = rows.get(rowName);
         if (row == null) {
             if (logger != null) {
@@ -75,7 +75,7 @@ final class VehicleDataTableLoader {
         Map<String, VehicleDataRow> result = new HashMap<>();
         try {
             LOGGER.trace("Parsing vehicle data table '{}'", path);
-            JsonNode root = mapper.readTree(path.toFile());
+            JsonNode root = documents.read(path);
             if (!root.isArray()) {
                 LOGGER.warn("Vehicle data table '{}' is not an array node.", path);
                 return result;
@@ -1,11 +1,11 @@
 package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.pipemasters.util.AssetResolver;
+import com.pipemasters.util.DependencyRecorder;
 import com.pipemasters.util.MissingAssetLogger;
 
 import java.io.IOException;
@@ -21,20 +21,20 @@ import java.util.concurrent.ConcurrentHashMap;
 
 final class VehicleSettingsLoader {
     private static final Logger LOGGER = LogManager.getLogger(VehicleSettingsLoader.class);
-    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
     private final AssetResolver resolver;
-    private final Map<Path, Map<String, VehicleSettings>> cache = new ConcurrentHashMap<>();
+    private final Map<Path, DependencyRecorder.Memoized<Map<String, VehicleSettings>>> cache = new ConcurrentHashMap<>();
 
     private final MissingAssetLogger logger;
     private final VehicleDataTableLoader dataTableLoader;
     private final VehicleBlueprintLoader blueprintLoader;
 
-    VehicleSettingsLoader(ObjectMapper mapper, Path rootDir, MissingAssetLogger logger) {
-        this.mapper = mapper;
+    VehicleSettingsLoader(JsonDocumentCache documents, Path rootDir, MissingAssetLogger logger) {
+        this.documents = documents;
         this.resolver = new AssetResolver(rootDir);
         this.logger = logger;
-        this.dataTableLoader = new VehicleDataTableLoader(mapper, rootDir, logger);
-        this.blueprintLoader = new VehicleBlueprintLoader(mapper, rootDir, logger);
+        this.dataTableLoader = new VehicleDataTableLoader(documents, rootDir, logger);
+        this.blueprintLoader = new VehicleBlueprintLoader(documents, rootDir, logger);
     }
 
     VehicleSettings load(JsonNode reference) {
@@ -65,7 +65,7 @@ final class VehicleSettingsLoader {
             return VehicleSettings.UNKNOWN;
         }
         LOGGER.trace("Reading vehicle settings from '{}'", resolved);
-        Map<String, VehicleSettings> map = cache.computeIfAbsent(resolved, this::readSettingsFile);
+        Map<String, VehicleSettings> map = LoaderCacheEvent.memoize(VehicleSettingsLoader.class, cache, resolved, this::readSettingsFile);
         VehicleSettings settings = map.get(settingsName);
         if (settings == null && logger != null) {
             logger.missing(settingsName + " in " + resolved, "vehicle settings entry");
@@ -80,7 +80,7 @@ final class VehicleSettingsLoader {
         Map<String, VehicleSettings> result = new HashMap<>();
         try {
             LOGGER.trace("Parsing vehicle settings file '{}'", path);
-            JsonNode root = mapper.readTree(path.toFile());
+            JsonNode root = documents.read(path);
             if (!root.isArray()) {
                 LOGGER.warn("Vehicle settings file '{}' is not an array node.", path);
                 return result;
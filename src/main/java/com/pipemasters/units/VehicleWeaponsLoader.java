@@ -1,7 +1,6 @@
 package com.pipemasters.units;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pipemasters.util.AssetResolver;
 import com.pipemasters.util.MissingAssetLogger;
 import com.pipemasters.vehicles.VehicleWeapon;
@@ -26,15 +25,15 @@ import java.util.concurrent.ConcurrentHashMap;
 final class VehicleWeaponsLoader {
     private static final Logger LOGGER = LogManager.getLogger(VehicleWeaponsLoader.class);
 
-    private final ObjectMapper mapper;
+    private final JsonDocumentCache documents;
     private final AssetResolver resolver;
     private final MissingAssetLogger logger;
     private final Map<Path, Map<String, JsonNode>> settingsCache = new ConcurrentHashMap<>();
     private final Map<Path, List<VehicleWeapon>> blueprintWeaponCache = new ConcurrentHashMap<>();
     private final Map<Path, WeaponInfo> weaponInfoCache = new ConcurrentHashMap<>();
 
-    VehicleWeaponsLoader(ObjectMapper mapper, Path rootDir, MissingAssetLogger logger) {
-        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    VehicleWeaponsLoader(JsonDocumentCache documents, Path rootDir, MissingAssetLogger logger) {
+        this.documents = Objects.requireNonNull(documents, "documents");
         this.resolver = new AssetResolver(rootDir);
         this.logger = logger;
     }
@@ -62,7 +61,18 @@ final class VehicleWeaponsLoader {
             }
             return List.of();
         }
-        Map<String, JsonNode> settings = settingsCache.computeIfAbsent(resolved, this::readSettingsFile);
+        LoaderCacheEvent event = new LoaderCacheEvent();
+        event.begin();
+        Map<String, JsonNode> settings = settingsCache.get(resolved);
+        boolean hit = settings != null;
+        if (settings == null) {
+            Map<String, JsonNode> loaded = readSettingsFile(resolved);
+            settings = settingsCache.putIfAbsent(resolved, loaded);
+            if (settings == null) {
+                settings = loaded;
+            }
+        }
+        event.complete(VehicleWeaponsLoader.class, resolved, hit);
         JsonNode properties = settings.get(settingsName);
         if (properties == null || properties.isMissingNode()) {
             if (logger != null) {
@@ -98,7 +108,7 @@ final class VehicleWeaponsLoader {
     private Map<String, JsonNode> readSettingsFile(Path path) {
         Map<String, JsonNode> result = new HashMap<>();
         try {
-            JsonNode root = mapper.readTree(path.toFile());
+            JsonNode root = documents.read(path);
             if (!root.isArray()) {
                 LOGGER.warn("Vehicle settings file '{}' is not an array node.", path);
                 return result;
@@ -141,8 +151,11 @@ final class VehicleWeaponsLoader {
 
     private List<VehicleWeapon> readWeaponsFromBlueprint(Path path, Set<Path> visited) {
         Path normalized = path.toAbsolutePath().normalize();
+        LoaderCacheEvent event = new LoaderCacheEvent();
+        event.begin();
         List<VehicleWeapon> cached = blueprintWeaponCache.get(normalized);
         if (cached != null) {
+            event.complete(VehicleWeaponsLoader.class, normalized, true);
             return cached;
         }
         if (!visited.add(normalized)) {
@@ -151,7 +164,7 @@ final class VehicleWeaponsLoader {
 
         JsonNode root;
         try {
-            root = mapper.readTree(path.toFile());
+            root = documents.read(path);
         } catch (IOException e) {
             throw new RuntimeException("Failed to read vehicle blueprint from " + path, e);
         }
@@ -198,6 +211,7 @@ final class VehicleWeaponsLoader {
 
         List<VehicleWeapon> merged = mergeWeapons(weapons);
         blueprintWeaponCache.put(normalized, merged);
+        event.complete(VehicleWeaponsLoader.class, normalized, false);
         return merged;
     }
 
@@ -291,14 +305,18 @@ final class VehicleWeaponsLoader {
 
     private WeaponInfo readWeaponInfoCached(Path path, Set<Path> visited) {
         Path normalized = path.toAbsolutePath().normalize();
+        LoaderCacheEvent event = new LoaderCacheEvent();
+        event.begin();
         WeaponInfo cached = weaponInfoCache.get(normalized);
         if (cached != null) {
+            event.complete(VehicleWeaponsLoader.class, normalized, true);
             return cached;
         }
         WeaponInfo info = readWeaponInfo(normalized, visited);
         if (info != null) {
             weaponInfoCache.put(normalized, info);
         }
+        event.complete(VehicleWeaponsLoader.class, normalized, false);
         return info;
     }
 
@@ -310,7 +328,7 @@ final class VehicleWeaponsLoader {
         String projectileName = "";
         JsonNode root;
         try {
-            root = mapper.readTree(path.toFile());
+            root = documents.read(path);
         } catch (IOException e) {
             throw new RuntimeException("Failed to read weapon blueprint from " + path, e);
         }
@@ -388,7 +406,7 @@ final class VehicleWeaponsLoader {
         }
         JsonNode root;
         try {
-            root = mapper.readTree(path.toFile());
+            root = documents.read(path);
         } catch (IOException e) {
             throw new RuntimeException("Failed to read weapon static info from " + path, e);
         }
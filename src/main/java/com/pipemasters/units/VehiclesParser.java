@@ -3,7 +3,9 @@ package com.pipemasters.units;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.MissingNode;
+import com.pipemasters.util.JsonFileInput;
 import com.pipemasters.util.MissingAssetLogger;
+import com.pipemasters.util.WorkerExecutors;
 import com.pipemasters.vehicles.VehicleExport;
 import com.pipemasters.vehicles.VehicleWeapon;
 import org.apache.logging.log4j.LogManager;
@@ -15,15 +17,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -32,21 +36,29 @@ import java.util.stream.Stream;
 public final class VehiclesParser {
     private static final Pattern COUNT_PATTERN = Pattern.compile("(\\d+)$");
     private static final Logger LOGGER = LogManager.getLogger(VehiclesParser.class);
+    private static final int PIPELINE_WINDOW_PER_THREAD = 4;
 
     private final ObjectMapper mapper;
     private final Path baseDir;
     private final VehicleSettingsLoader vehicleSettingsLoader;
     private final DelayLoader delayLoader;
+    private final JsonDocumentCache documents;
     private final VehicleWeaponsLoader weaponsLoader;
+    private final MissingAssetLogger missingAssetLogger;
 
     public VehiclesParser(ObjectMapper mapper, Path baseDir) {
+        this(mapper, baseDir, new JsonDocumentCache(mapper));
+    }
+
+    VehiclesParser(ObjectMapper mapper, Path baseDir, JsonDocumentCache documents) {
         this.mapper = Objects.requireNonNull(mapper, "mapper");
         this.baseDir = Objects.requireNonNull(baseDir, "baseDir");
         Path rootDir = resolveRootDirectory(baseDir);
-        MissingAssetLogger missingAssetLogger = new MissingAssetLogger(rootDir);
-        this.vehicleSettingsLoader = new VehicleSettingsLoader(mapper, rootDir, missingAssetLogger);
-        this.delayLoader = new DelayLoader(mapper, rootDir, missingAssetLogger);
-        this.weaponsLoader = new VehicleWeaponsLoader(mapper, rootDir, missingAssetLogger);
+        this.missingAssetLogger = new MissingAssetLogger(rootDir);
+        this.documents = Objects.requireNonNull(documents, "documents");
+        this.vehicleSettingsLoader = new VehicleSettingsLoader(documents, rootDir, missingAssetLogger);
+        this.delayLoader = new DelayLoader(documents, rootDir, missingAssetLogger);
+        this.weaponsLoader = new VehicleWeaponsLoader(documents, rootDir, missingAssetLogger);
     }
 
     public List<VehicleExport> parse() throws IOException {
@@ -54,6 +66,10 @@ public final class VehiclesParser {
     }
 
     public List<VehicleExport> parse(int threads) throws IOException {
+        return parse(threads, false);
+    }
+
+    public List<VehicleExport> parse(int threads, boolean virtualThreads) throws IOException {
         Map<String, VehicleExport> vehicles = new LinkedHashMap<>();
 
         if (!Files.isDirectory(baseDir)) {
@@ -61,61 +77,142 @@ public final class VehiclesParser {
             return List.of();
         }
 
-        LOGGER.info("Scanning factions under '{}'", baseDir);
-        List<Path> unitFiles = new ArrayList<>();
-        try (Stream<Path> factionDirs = Files.list(baseDir)) {
-            for (Path factionDir : factionDirs.collect(Collectors.toList())) {
-                if (!Files.isDirectory(factionDir)) {
-                    continue;
-                }
-                String name = factionDir.getFileName().toString();
-                if (name.equalsIgnoreCase("Template")) {
-                    LOGGER.debug("Skipping template faction directory '{}'", factionDir);
-                    continue;
-                }
-                LOGGER.info("Processing faction directory '{}'", factionDir);
-                unitFiles.addAll(collectFactionUnitFiles(factionDir));
+        int threadCount = Math.max(1, threads);
+        if (threadCount == 1) {
+            try {
+                scanUnitFiles(file -> {
+                    for (VehicleExport vehicle : parseUnitFileVehicles(file)) {
+                        mergeVehicle(vehicles, vehicle);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing vehicle files.", e);
             }
+        } else {
+            parseInPipeline(threadCount, virtualThreads, vehicles);
         }
 
-        if (unitFiles.isEmpty()) {
-            return List.of();
-        }
+        documents.logStatistics();
+        missingAssetLogger.flush();
+        return List.copyOf(vehicles.values());
+    }
 
-        int threadCount = Math.max(1, threads);
-        if (threadCount == 1 || unitFiles.size() == 1) {
-            for (Path file : unitFiles) {
-                parseUnitFile(file, vehicles);
+    private void parseInPipeline(int threadCount,
+                                 boolean virtualThreads,
+                                 Map<String, VehicleExport> vehicles) throws IOException {
+        int window = threadCount * PIPELINE_WINDOW_PER_THREAD;
+        Semaphore permits = new Semaphore(window);
+        BlockingQueue<UnitFileTask> pending = new ArrayBlockingQueue<>(window);
+        BlockingQueue<PipelineEvent> completed = new LinkedBlockingQueue<>();
+        ExecutorService executor = WorkerExecutors.newWorkerPool("vehicles-parse", threadCount + 1, virtualThreads);
+        try {
+            executor.execute(() -> produceUnitFiles(permits, pending, completed, threadCount));
+            for (int i = 0; i < threadCount; i++) {
+                executor.execute(() -> consumeUnitFiles(pending, completed));
+            }
+
+            Map<Integer, List<VehicleExport>> outOfOrder = new HashMap<>();
+            int nextIndex = 0;
+            int fileCount = -1;
+            while (fileCount < 0 || nextIndex < fileCount) {
+                PipelineEvent event = completed.take();
+                if (event instanceof ScanFinished finished) {
+                    fileCount = finished.fileCount();
+                } else if (event instanceof ParsedUnitFile parsed) {
+                    outOfOrder.put(parsed.index(), parsed.vehicles());
+                    List<VehicleExport> ready;
+                    while ((ready = outOfOrder.remove(nextIndex)) != null) {
+                        for (VehicleExport vehicle : ready) {
+                            mergeVehicle(vehicles, vehicle);
+                        }
+                        nextIndex++;
+                        permits.release();
+                    }
+                } else if (event instanceof PipelineFailure failure) {
+                    throw rethrow(failure.error());
+                }
             }
-            return List.copyOf(vehicles.values());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing vehicle files.", e);
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    private void produceUnitFiles(Semaphore permits,
+                                  BlockingQueue<UnitFileTask> pending,
+                                  BlockingQueue<PipelineEvent> completed,
+                                  int workerCount) {
         try {
-            List<Future<List<VehicleExport>>> futures = new ArrayList<>(unitFiles.size());
-            for (Path file : unitFiles) {
-                futures.add(executor.submit(() -> parseUnitFileVehicles(file)));
+            int[] nextIndex = {0};
+            scanUnitFiles(file -> {
+                permits.acquire();
+                pending.put(new UnitFileTask(nextIndex[0]++, file));
+            });
+            completed.put(new ScanFinished(nextIndex[0]));
+            for (int i = 0; i < workerCount; i++) {
+                pending.put(UnitFileTask.END);
             }
-            for (Future<List<VehicleExport>> future : futures) {
-                List<VehicleExport> parsed = future.get();
-                for (VehicleExport vehicle : parsed) {
-                    mergeVehicle(vehicles, vehicle);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            completed.offer(new PipelineFailure(e));
+        }
+    }
+
+    private void consumeUnitFiles(BlockingQueue<UnitFileTask> pending, BlockingQueue<PipelineEvent> completed) {
+        try {
+            while (true) {
+                UnitFileTask task = pending.take();
+                if (task == UnitFileTask.END) {
+                    return;
+                }
+                try {
+                    completed.put(new ParsedUnitFile(task.index(), parseUnitFileVehicles(task.file())));
+                } catch (Throwable e) {
+                    completed.put(new PipelineFailure(e));
+                    return;
                 }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new IOException("Interrupted while parsing vehicle files.", e);
-        } catch (ExecutionException e) {
-            Throwable cause = e.getCause();
-            if (cause instanceof UncheckedIOException io) {
-                throw io.getCause();
-            }
-            throw new RuntimeException("Failed to parse vehicle files.", cause);
-        } finally {
-            executor.shutdown();
         }
+    }
 
-        return List.copyOf(vehicles.values());
+    private static IOException rethrow(Throwable error) {
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error instanceof IOException io) {
+            return io;
+        }
+        if (error instanceof UncheckedIOException io) {
+            return io.getCause();
+        }
+        if (error instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        throw new RuntimeException("Failed to parse vehicle files.", error);
+    }
+
+    private void scanUnitFiles(UnitFileSink sink) throws IOException, InterruptedException {
+        LOGGER.info("Scanning factions under '{}'", baseDir);
+        try (Stream<Path> factionDirs = Files.list(baseDir)) {
+            for (Path factionDir : factionDirs.collect(Collectors.toList())) {
+                if (!Files.isDirectory(factionDir)) {
+                    continue;
+                }
+                String name = factionDir.getFileName().toString();
+                if (name.equalsIgnoreCase("Template")) {
+                    LOGGER.debug("Skipping template faction directory '{}'", factionDir);
+                    continue;
+                }
+                LOGGER.info("Processing faction directory '{}'", factionDir);
+                scanFactionUnitFiles(factionDir, sink);
+            }
+        }
     }
 
     private Path resolveRootDirectory(Path start) {
@@ -143,32 +240,27 @@ public final class VehiclesParser {
         return candidate;
     }
 
-    private List<Path> collectFactionUnitFiles(Path factionDir) throws IOException {
-        List<Path> filesList = new ArrayList<>();
+    private void scanFactionUnitFiles(Path factionDir, UnitFileSink sink) throws IOException, InterruptedException {
         try (Stream<Path> files = Files.walk(factionDir)) {
-            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
-                if (!file.getFileName().toString().endsWith(".json")) {
+            Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                String fileName = file.getFileName().toString();
+                if (!fileName.endsWith(".json") || fileName.startsWith("FactionSetupTable_")) {
                     continue;
                 }
-                if (file.getFileName().toString().startsWith("FactionSetupTable_")) {
-                    continue;
+                if (Files.isRegularFile(file)) {
+                    sink.accept(file);
                 }
-                filesList.add(file);
             }
-        }
-        return filesList;
-    }
-
-    private void parseUnitFile(Path file, Map<String, VehicleExport> vehicles) throws IOException {
-        List<VehicleExport> parsed = parseUnitFileVehicles(file);
-        for (VehicleExport vehicle : parsed) {
-            mergeVehicle(vehicles, vehicle);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
     private List<VehicleExport> parseUnitFileVehicles(Path file) throws IOException {
         LOGGER.debug("Parsing unit file '{}' for vehicles.", file);
-        JsonNode root = mapper.readTree(file.toFile());
+        JsonNode root = JsonFileInput.readTree(mapper, file);
         if (root == null || !root.isArray()) {
             LOGGER.warn("Unit file '{}' is not an array; skipping.", file);
             return List.of();
@@ -341,4 +433,25 @@ public final class VehiclesParser {
         }
         return JsonUtils.readInt(limitedCountNode);
     }
+
+    @FunctionalInterface
+    private interface UnitFileSink {
+        void accept(Path file) throws IOException, InterruptedException;
+    }
+
+    private record UnitFileTask(int index, Path file) {
+        private static final UnitFileTask END = new UnitFileTask(-1, null);
+    }
+
+    private sealed interface PipelineEvent permits ParsedUnitFile, ScanFinished, PipelineFailure {
+    }
+
+    private record ParsedUnitFile(int index, List<VehicleExport> vehicles) implements PipelineEvent {
+    }
+
+    private record ScanFinished(int fileCount) implements PipelineEvent {
+    }
+
+    private record PipelineFailure(Throwable error) implements PipelineEvent {
+    }
 }
@@ -0,0 +1,355 @@
+package com.pipemasters.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class AssetCatalog {
+    private static final Logger LOGGER = LogManager.getLogger(AssetCatalog.class);
+    private static final String PROPERTY_ENABLED = "assets.exportCatalog";
+    private static final String ENV_ENABLED = "ASSETS_EXPORT_CATALOG";
+    private static final Map<Path, CompletableFuture<AssetCatalog>> CATALOGS = new ConcurrentHashMap<>();
+    private static final long MISSING = -1L;
+
+    private final Path baseDir;
+    private final Map<String, DirectoryEntry> directories;
+
+    private AssetCatalog(Path baseDir, Map<String, DirectoryEntry> directories) {
+        this.baseDir = baseDir;
+        this.directories = directories;
+    }
+
+    public static boolean isEnabled() {
+        String value = System.getProperty(PROPERTY_ENABLED);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_ENABLED);
+        }
+        return value != null && (value.trim().equalsIgnoreCase("true") || value.trim().equals("1"));
+    }
+
+    public static AssetCatalog forRoot(Path baseDir) {
+        Path normalized = baseDir.toAbsolutePath().normalize();
+        CompletableFuture<AssetCatalog> existing = CATALOGS.get(normalized);
+        if (existing == null) {
+            CompletableFuture<AssetCatalog> building = new CompletableFuture<>();
+            existing = CATALOGS.putIfAbsent(normalized, building);
+            if (existing == null) {
+                try {
+                    AssetCatalog catalog = build(normalized);
+                    building.complete(catalog);
+                    return catalog;
+                } catch (Throwable e) {
+                    building.completeExceptionally(e);
+                    CATALOGS.remove(normalized, building);
+                    throw e;
+                }
+            }
+        }
+        return await(existing);
+    }
+
+    public static void invalidateAll() {
+        CATALOGS.clear();
+    }
+
+    public static void revalidateAll() {
+        for (CompletableFuture<AssetCatalog> future : CATALOGS.values()) {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                continue;
+            }
+            AssetCatalog catalog = future.join();
+            catalog.directories.replaceAll((key, entry) -> entry.verified() ? entry.unverified() : entry);
+        }
+    }
+
+    public Path baseDir() {
+        return baseDir;
+    }
+
+    public boolean covers(Path path) {
+        return path != null && path.startsWith(baseDir);
+    }
+
+    public Path findExisting(Path candidateFile) {
+        if (candidateFile == null) {
+            return null;
+        }
+        Path parent = candidateFile.getParent();
+        Path candidateName = candidateFile.getFileName();
+        if (parent == null || candidateName == null || !covers(parent)) {
+            return null;
+        }
+        DirectoryEntry entry = currentEntry(toKey(parent));
+        if (entry == null) {
+            return null;
+        }
+        String target = candidateName.toString().toLowerCase(Locale.ROOT);
+        Path exact = entry.filesByLowerName().get(target);
+        if (exact != null) {
+            return exact;
+        }
+        for (int i = 0; i < entry.files().size(); i++) {
+            if (entry.lowerNames().get(i).endsWith(target)) {
+                return entry.files().get(i);
+            }
+        }
+        return null;
+    }
+
+    private DirectoryEntry currentEntry(String key) {
+        DirectoryEntry entry = directories.get(key);
+        if (entry != null) {
+            return entry.verified() ? entry : revalidate(key, entry);
+        }
+        String ancestor = key;
+        while (!ancestor.isEmpty()) {
+            int separator = ancestor.lastIndexOf('/');
+            ancestor = separator >= 0 ? ancestor.substring(0, separator) : "";
+            DirectoryEntry ancestorEntry = directories.get(ancestor);
+            if (ancestorEntry != null) {
+                if (ancestorEntry.verified() || revalidate(ancestor, ancestorEntry) == null) {
+                    return null;
+                }
+                entry = directories.get(key);
+                return entry == null || entry.verified() ? entry : revalidate(key, entry);
+            }
+        }
+        return null;
+    }
+
+    private DirectoryEntry revalidate(String key, DirectoryEntry entry) {
+        boolean current = true;
+        for (DirectoryStamp stamp : entry.sources()) {
+            if (lastModified(stamp.path()) != stamp.lastModified()) {
+                current = false;
+                break;
+            }
+        }
+        DirectoryEntry refreshed = null;
+        if (current) {
+            refreshed = entry.verify();
+        } else {
+            for (DirectoryStamp stamp : entry.sources()) {
+                Listing listing;
+                try {
+                    listing = list(stamp.path());
+                } catch (IOException e) {
+                    continue;
+                }
+                refreshed = refreshed == null ? listing.entry() : refreshed.merge(listing.entry());
+                for (Path subdirectory : listing.subdirectories()) {
+                    if (!isIndexed(subdirectory)) {
+                        new IndexDirectoryTask(this, subdirectory, new AtomicLong(), ConcurrentHashMap.newKeySet()).invoke();
+                    }
+                }
+            }
+            LOGGER.debug("Re-indexed '{}' under '{}' after it changed on disk.", key, baseDir);
+        }
+        if (refreshed == null) {
+            directories.remove(key, entry);
+            return null;
+        }
+        directories.replace(key, entry, refreshed);
+        return refreshed;
+    }
+
+    private boolean isIndexed(Path directory) {
+        DirectoryEntry entry = directories.get(toKey(directory));
+        if (entry == null) {
+            return false;
+        }
+        for (DirectoryStamp stamp : entry.sources()) {
+            if (stamp.path().equals(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Listing list(Path directory) throws IOException {
+        long modified = lastModified(directory);
+        if (modified == MISSING) {
+            throw new IOException("Not a directory: " + directory);
+        }
+        List<Path> files = new ArrayList<>();
+        List<String> lowerNames = new ArrayList<>();
+        Map<String, Path> filesByLowerName = new HashMap<>();
+        List<Path> subdirectories = new ArrayList<>();
+        List<Object> subdirectoryKeys = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    subdirectories.add(child);
+                    subdirectoryKeys.add(attributes.fileKey());
+                } else if (attributes.isRegularFile()) {
+                    String lowerName = child.getFileName().toString().toLowerCase(Locale.ROOT);
+                    files.add(child);
+                    lowerNames.add(lowerName);
+                    filesByLowerName.putIfAbsent(lowerName, child);
+                }
+            }
+        }
+        DirectoryEntry entry = new DirectoryEntry(List.of(new DirectoryStamp(directory, modified)),
+                List.copyOf(files),
+                List.copyOf(lowerNames),
+                Map.copyOf(filesByLowerName),
+                true);
+        return new Listing(entry, subdirectories, subdirectoryKeys);
+    }
+
+    private static long lastModified(Path directory) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(directory, BasicFileAttributes.class);
+            return attributes.isDirectory() ? attributes.lastModifiedTime().toMillis() : MISSING;
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    private String toKey(Path directory) {
+        Path relative = baseDir.relativize(directory);
+        if (relative.getNameCount() == 0 || relative.toString().isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Path segment : relative) {
+            if (builder.length() > 0) {
+                builder.append('/');
+            }
+            builder.append(segment.toString().toLowerCase(Locale.ROOT));
+        }
+        return builder.toString();
+    }
+
+    private static AssetCatalog await(CompletableFuture<AssetCatalog> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static AssetCatalog build(Path baseDir) {
+        long started = System.nanoTime();
+        Map<String, DirectoryEntry> directories = new ConcurrentHashMap<>();
+        AtomicLong fileCount = new AtomicLong();
+        AssetCatalog catalog = new AssetCatalog(baseDir, directories);
+        if (Files.isDirectory(baseDir)) {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+            try {
+                pool.invoke(new IndexDirectoryTask(catalog, baseDir, fileCount, ConcurrentHashMap.newKeySet()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        LOGGER.info("Indexed {} file(s) in {} director(ies) under '{}' in {} ms.",
+                fileCount.get(),
+                directories.size(),
+                baseDir,
+                (System.nanoTime() - started) / 1_000_000);
+        return catalog;
+    }
+
+    private record DirectoryEntry(List<DirectoryStamp> sources,
+                                  List<Path> files,
+                                  List<String> lowerNames,
+                                  Map<String, Path> filesByLowerName,
+                                  boolean verified) {
+        DirectoryEntry merge(DirectoryEntry other) {
+            List<DirectoryStamp> mergedSources = new ArrayList<>(sources);
+            mergedSources.addAll(other.sources);
+            List<Path> mergedFiles = new ArrayList<>(files);
+            mergedFiles.addAll(other.files);
+            List<String> mergedNames = new ArrayList<>(lowerNames);
+            mergedNames.addAll(other.lowerNames);
+            Map<String, Path> mergedByName = new HashMap<>(other.filesByLowerName);
+            mergedByName.putAll(filesByLowerName);
+            return new DirectoryEntry(List.copyOf(mergedSources),
+                    List.copyOf(mergedFiles),
+                    List.copyOf(mergedNames),
+                    Map.copyOf(mergedByName),
+                    verified && other.verified);
+        }
+
+        DirectoryEntry verify() {
+            return new DirectoryEntry(sources, files, lowerNames, filesByLowerName, true);
+        }
+
+        DirectoryEntry unverified() {
+            return new DirectoryEntry(sources, files, lowerNames, filesByLowerName, false);
+        }
+    }
+
+    private record DirectoryStamp(Path path, long lastModified) {
+    }
+
+    private record Listing(DirectoryEntry entry, List<Path> subdirectories, List<Object> subdirectoryKeys) {
+    }
+
+    private static final class IndexDirectoryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient AssetCatalog catalog;
+        private final transient Path directory;
+        private final AtomicLong fileCount;
+        private final transient Set<Object> visited;
+
+        private IndexDirectoryTask(AssetCatalog catalog, Path directory, AtomicLong fileCount, Set<Object> visited) {
+            this.catalog = catalog;
+            this.directory = directory;
+            this.fileCount = fileCount;
+            this.visited = visited;
+        }
+
+        @Override
+        protected void compute() {
+            Listing listing;
+            try {
+                listing = catalog.list(directory);
+            } catch (IOException e) {
+                LOGGER.debug("Failed to index directory '{}': {}", directory, e.getMessage());
+                return;
+            }
+            List<IndexDirectoryTask> subtasks = new ArrayList<>();
+            for (int i = 0; i < listing.subdirectories().size(); i++) {
+                Object fileKey = listing.subdirectoryKeys().get(i);
+                if (fileKey == null || visited.add(fileKey)) {
+                    subtasks.add(new IndexDirectoryTask(catalog, listing.subdirectories().get(i), fileCount, visited));
+                }
+            }
+            fileCount.addAndGet(listing.entry().files().size());
+            catalog.directories.merge(catalog.toKey(directory), listing.entry(), DirectoryEntry::merge);
+            invokeAll(subtasks);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.pipemasters.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class AssetResolutionCache {
+    private static final Logger LOGGER = LogManager.getLogger(AssetResolutionCache.class);
+    private static final String PROPERTY_ENABLED = "assets.resolutionCache";
+    private static final String ENV_ENABLED = "ASSETS_RESOLUTION_CACHE";
+    private static final String PROPERTY_DIRECTORY = "assets.resolutionCacheDir";
+    private static final int FORMAT_VERSION = 1;
+    private static final long MISSING = -1L;
+    private static final Map<Path, AssetResolutionCache> CACHES = new ConcurrentHashMap<>();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path rootDir;
+    private final List<String> searchRoots;
+    private final Path cacheFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Path, Long> currentModifiedTimes = new ConcurrentHashMap<>();
+    private final Map<Path, DirectoryStamp> currentStamps = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private AssetResolutionCache(Path rootDir, List<String> searchRoots, Path cacheFile) {
+        this.rootDir = rootDir;
+        this.searchRoots = searchRoots;
+        this.cacheFile = cacheFile;
+        load();
+    }
+
+    public static boolean isEnabled() {
+        String value = System.getProperty(PROPERTY_ENABLED);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_ENABLED);
+        }
+        return value == null || value.isBlank() || !(value.trim().equalsIgnoreCase("false") || value.trim().equals("0"));
+    }
+
+    public static AssetResolutionCache forRoot(Path rootDir, List<Path> searchRoots) {
+        Path normalized = rootDir.toAbsolutePath().normalize();
+        return CACHES.computeIfAbsent(normalized, root -> {
+            List<String> roots = new ArrayList<>(searchRoots.size());
+            for (Path searchRoot : searchRoots) {
+                roots.add(searchRoot.toString());
+            }
+            return new AssetResolutionCache(root, List.copyOf(roots), cacheFileFor(root));
+        });
+    }
+
+    public static void flushAll() {
+        for (AssetResolutionCache cache : CACHES.values()) {
+            cache.flush();
+        }
+    }
+
+    public static void revalidateAll() {
+        for (AssetResolutionCache cache : CACHES.values()) {
+            cache.revalidate();
+        }
+    }
+
+    public Path lookup(String objectPath) {
+        Entry entry = entries.get(objectPath);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (!entry.verified()) {
+            if (!isCurrent(entry.directories())) {
+                entries.remove(objectPath, entry);
+                dirty.set(true);
+                stale.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            entries.replace(objectPath, entry, new Entry(entry.resolved(), entry.directories(), true));
+        }
+        hits.incrementAndGet();
+        return Path.of(entry.resolved());
+    }
+
+    public void store(String objectPath, Path resolved, Collection<Path> probedDirectories) {
+        if (objectPath == null || resolved == null) {
+            return;
+        }
+        Map<Path, DirectoryStamp> stamps = new HashMap<>();
+        for (Path directory : probedDirectories) {
+            DirectoryStamp stamp = stampFor(directory);
+            if (stamp != null) {
+                stamps.putIfAbsent(stamp.path(), stamp);
+            }
+        }
+        entries.put(objectPath, new Entry(resolved.toString(), List.copyOf(stamps.values()), true));
+        dirty.set(true);
+    }
+
+    private void revalidate() {
+        currentModifiedTimes.clear();
+        currentStamps.clear();
+        entries.replaceAll((objectPath, entry) -> entry.verified()
+                ? new Entry(entry.resolved(), entry.directories(), false)
+                : entry);
+    }
+
+    private void flush() {
+        LOGGER.info("Asset resolution cache for '{}': {} hit(s), {} miss(es), {} stale entr(ies) dropped.",
+                rootDir,
+                hits.get(),
+                misses.get(),
+                stale.get());
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+
+        Map<DirectoryStamp, Integer> directoryIndexes = new HashMap<>();
+        List<DirectoryRecord> directories = new ArrayList<>();
+        List<EntryRecord> records = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            List<DirectoryStamp> stamps = mapEntry.getValue().directories();
+            int[] indexes = new int[stamps.size()];
+            for (int i = 0; i < stamps.size(); i++) {
+                DirectoryStamp stamp = stamps.get(i);
+                indexes[i] = directoryIndexes.computeIfAbsent(stamp, key -> {
+                    directories.add(new DirectoryRecord(key.path().toString(), key.lastModified()));
+                    return directories.size() - 1;
+                });
+            }
+            records.add(new EntryRecord(mapEntry.getKey(), mapEntry.getValue().resolved(), indexes));
+        }
+
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            MAPPER.writeValue(temp.toFile(), new CacheFile(FORMAT_VERSION, rootDir.toString(), searchRoots, directories, records));
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.debug("Saved {} asset resolution(s) to '{}'.", records.size(), cacheFile);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to save asset resolution cache '{}': {}", cacheFile, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        try {
+            CacheFile file = MAPPER.readValue(cacheFile.toFile(), CacheFile.class);
+            if (file.version() != FORMAT_VERSION
+                    || !rootDir.toString().equals(file.root())
+                    || !searchRoots.equals(file.searchRoots())) {
+                LOGGER.debug("Ignoring asset resolution cache '{}' written for a different root layout or format.", cacheFile);
+                return;
+            }
+            List<DirectoryStamp> directories = new ArrayList<>(file.directories().size());
+            for (DirectoryRecord record : file.directories()) {
+                directories.add(new DirectoryStamp(Path.of(record.path()), record.lastModified()));
+            }
+            for (EntryRecord record : file.entries()) {
+                List<DirectoryStamp> stamps = new ArrayList<>(record.directories().length);
+                for (int index : record.directories()) {
+                    stamps.add(directories.get(index));
+                }
+                entries.put(record.objectPath(), new Entry(record.resolved(), List.copyOf(stamps), false));
+            }
+            LOGGER.debug("Loaded {} cached asset resolution(s) from '{}'.", entries.size(), cacheFile);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Discarding unreadable asset resolution cache '{}': {}", cacheFile, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private boolean isCurrent(List<DirectoryStamp> directories) {
+        for (DirectoryStamp stamp : directories) {
+            if (currentModifiedTime(stamp.path()) != stamp.lastModified()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DirectoryStamp stampFor(Path directory) {
+        if (directory == null) {
+            return null;
+        }
+        DirectoryStamp cached = currentStamps.get(directory);
+        if (cached != null) {
+            return cached;
+        }
+        Path current = directory;
+        while (current != null) {
+            long modified = currentModifiedTime(current);
+            if (modified != MISSING) {
+                DirectoryStamp stamp = new DirectoryStamp(current, modified);
+                currentStamps.put(directory, stamp);
+                return stamp;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    private long currentModifiedTime(Path directory) {
+        return currentModifiedTimes.computeIfAbsent(directory, path -> {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return attributes.isDirectory() ? attributes.lastModifiedTime().toMillis() : MISSING;
+            } catch (IOException e) {
+                return MISSING;
+            }
+        });
+    }
+
+    private static Path cacheFileFor(Path rootDir) {
+        String configured = System.getProperty(PROPERTY_DIRECTORY);
+        Path directory = configured != null && !configured.isBlank()
+                ? Path.of(configured)
+                : Path.of("").toAbsolutePath().resolve("output").resolve(".cache").resolve("asset-resolver");
+        return directory.toAbsolutePath().normalize().resolve(hash(rootDir.toString()) + ".json");
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                builder.append(String.format("%02x", digest[i]));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(String resolved, List<DirectoryStamp> directories, boolean verified) {
+    }
+
+    private record DirectoryStamp(Path path, long lastModified) {
+    }
+
+    private record CacheFile(int version,
+                             String root,
+                             List<String> searchRoots,
+                             List<DirectoryRecord> directories,
+                             List<EntryRecord> entries) {
+    }
+
+    private record DirectoryRecord(String path, long lastModified) {
+    }
+
+    private record EntryRecord(String objectPath, String resolved, int[] directories) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.pipemasters.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.nio.file.Path;
+
+@Name("com.pipemasters.AssetResolve")
+@Label("Asset Resolve")
+@Category({"FModelToSC", "Assets"})
+@Description("Resolution of an Unreal object path to an exported JSON file")
+@StackTrace(false)
+final class AssetResolveEvent extends Event {
+    @Label("Object Path")
+    String objectPath;
+
+    @Label("Resolved Path")
+    String resolvedPath;
+
+    @Label("Cache Hit")
+    @Description("Answered by the resolution cache without probing candidates")
+    boolean cacheHit;
+
+    @Label("Found")
+    @Description("An existing file was found; false for fallbacks and cache hits")
+    boolean found;
+
+    @Label("Candidates")
+    int candidates;
+
+    @Label("Filesystem Probes")
+    @Description("Candidate files checked on disk rather than in the asset catalog")
+    int probes;
+
+    void complete(String objectPath, Path resolved) {
+        end();
+        if (shouldCommit()) {
+            this.objectPath = objectPath;
+            this.resolvedPath = resolved != null ? resolved.toString() : null;
+            commit();
+        }
+    }
+}
@@ -9,21 +9,51 @@ import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 public final class AssetResolver {
+    private static final Map<Path, List<Path>> SEARCH_ROOTS = new ConcurrentHashMap<>();
+    private static final int NOT_FOUND = -1;
+
     private final Path rootDir;
     private final boolean rootIsSettingsDir;
     private final String modName;
     private final List<Path> searchRoots;
+    private final AssetCatalog catalog;
+    private final AssetResolutionCache resolutionCache;
 
     public AssetResolver(Path rootDir) {
         this.rootDir = rootDir;
         Path fileName = rootDir != null ? rootDir.getFileName() : null;
         this.rootIsSettingsDir = fileName != null && "Settings".equalsIgnoreCase(fileName.toString());
         this.modName = determineModName(rootDir);
-        this.searchRoots = buildSearchRoots(rootDir);
+        this.searchRoots = rootDir != null
+                ? SEARCH_ROOTS.computeIfAbsent(rootDir, root -> List.copyOf(buildSearchRoots(root)))
+                : List.of();
+        this.catalog = rootDir != null && AssetCatalog.isEnabled()
+                ? AssetCatalog.forRoot(determineCatalogRoot(rootDir))
+                : null;
+        this.resolutionCache = rootDir != null && catalog == null && AssetResolutionCache.isEnabled()
+                ? AssetResolutionCache.forRoot(rootDir, searchRoots)
+                : null;
+    }
+
+    public static void flushResolutionCaches() {
+        AssetResolutionCache.flushAll();
+    }
+
+    public static void revalidateCaches() {
+        AssetCatalog.revalidateAll();
+        AssetResolutionCache.revalidateAll();
+    }
+
+    public static void invalidateCaches() {
+        SEARCH_ROOTS.clear();
+        AssetCatalog.invalidateAll();
+        AssetResolutionCache.revalidateAll();
     }
 
     public Path resolve(String objectPath) {
@@ -52,9 +82,91 @@ public final class AssetResolver {
             return null;
         }
 
+        AssetResolveEvent event = new AssetResolveEvent();
+        event.begin();
+        if (resolutionCache == null) {
+            Resolution resolution = resolveUncached(segments, null, event);
+            event.found = resolution.found();
+            recordShadowedCandidates(segments, resolution.rank());
+            event.complete(normalized, resolution.path());
+            return resolution.path();
+        }
+        Path cached = resolutionCache.lookup(normalized);
+        if (cached != null) {
+            event.cacheHit = true;
+            if (DependencyRecorder.isRecording()) {
+                recordShadowedCandidates(segments, Files.isRegularFile(cached) ? rankOf(segments, cached) : NOT_FOUND);
+            }
+            event.complete(normalized, cached);
+            return cached;
+        }
+        Set<Path> probedDirectories = new LinkedHashSet<>();
+        Resolution resolution = resolveUncached(segments, probedDirectories, event);
+        resolutionCache.store(normalized, resolution.path(), probedDirectories);
+        event.found = resolution.found();
+        recordShadowedCandidates(segments, resolution.rank());
+        event.complete(normalized, resolution.path());
+        return resolution.path();
+    }
+
+    private void recordShadowedCandidates(List<String> segments, int rank) {
+        if (!DependencyRecorder.isRecording()) {
+            return;
+        }
+        List<Path> candidateFiles = candidateFiles(segments);
+        int limit = rank == NOT_FOUND ? candidateFiles.size() : Math.min(rank, candidateFiles.size());
+        for (int i = 0; i < limit; i++) {
+            DependencyRecorder.touch(candidateFiles.get(i));
+        }
+    }
+
+    private int rankOf(List<String> segments, Path found) {
+        List<Path> candidateFiles = candidateFiles(segments);
+        for (int i = 0; i < candidateFiles.size(); i++) {
+            if (isMatch(candidateFiles.get(i), found)) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private List<Path> candidateFiles(List<String> segments) {
+        List<List<String>> candidates = buildCandidates(segments);
+        List<Path> searchOrder = equalsIgnoreCase(segments.get(0), "Game")
+                ? prioritizeBaseGameRoots(searchRoots)
+                : searchRoots;
+        List<Path> candidateFiles = new ArrayList<>(searchOrder.size() * candidates.size());
+        for (Path searchRoot : searchOrder) {
+            for (List<String> candidate : candidates) {
+                Path relative = toPath(candidate);
+                if (relative == null || relative.getNameCount() == 0) {
+                    continue;
+                }
+                Path candidateFile = appendJsonExtension(searchRoot.resolve(relative));
+                if (candidateFile != null) {
+                    candidateFiles.add(candidateFile);
+                }
+            }
+        }
+        return candidateFiles;
+    }
+
+    private boolean isMatch(Path candidateFile, Path found) {
+        Path candidateParent = candidateFile.getParent();
+        Path foundParent = found.getParent();
+        Path candidateName = candidateFile.getFileName();
+        Path foundName = found.getFileName();
+        return candidateParent != null && foundParent != null && candidateName != null && foundName != null
+                && equalsIgnoreCase(candidateParent.toString(), foundParent.toString())
+                && foundName.toString().toLowerCase(Locale.ROOT).endsWith(candidateName.toString().toLowerCase(Locale.ROOT));
+    }
+
+    private Resolution resolveUncached(List<String> segments, Set<Path> probedDirectories, AssetResolveEvent event) {
         boolean preferBaseGame = !segments.isEmpty() && equalsIgnoreCase(segments.get(0), "Game");
         List<List<String>> candidates = buildCandidates(segments);
+        event.candidates = candidates.size();
         Path fallback = null;
+        int rank = 0;
         List<Path> searchOrder = searchRoots;
         if (preferBaseGame) {
             searchOrder = prioritizeBaseGameRoots(searchRoots);
@@ -70,19 +182,17 @@ public final class AssetResolver {
                 if (candidateFile == null) {
                     continue;
                 }
-                Path existing = findExistingCandidate(candidateFile);
+                Path existing = findExistingCandidate(candidateFile, probedDirectories, event);
                 if (existing != null) {
-                    if (isBetterFallback(existing, fallback)) {
-                        fallback = existing;
-                    }
-                    return existing;
+                    return new Resolution(existing, rank);
                 }
                 if (isBetterFallback(candidateFile, fallback)) {
                     fallback = candidateFile;
                 }
+                rank++;
             }
         }
-        return fallback;
+        return new Resolution(fallback, NOT_FOUND);
     }
 
     private String determineModName(Path rootDir) {
@@ -107,6 +217,19 @@ public final class AssetResolver {
         return null;
     }
 
+    private Path determineCatalogRoot(Path rootDir) {
+        Path normalized = rootDir.toAbsolutePath().normalize();
+        Path current = normalized;
+        while (current != null) {
+            Path name = current.getFileName();
+            if (name != null && "Exports".equalsIgnoreCase(name.toString())) {
+                return current;
+            }
+            current = current.getParent();
+        }
+        return normalized;
+    }
+
     private List<Path> buildSearchRoots(Path rootDir) {
         List<Path> roots = new ArrayList<>();
         if (rootDir == null) {
@@ -396,10 +519,17 @@ public final class AssetResolver {
         return path.resolveSibling(fileName + ".json");
     }
 
-    private Path findExistingCandidate(Path candidateFile) {
+    private Path findExistingCandidate(Path candidateFile, Set<Path> probedDirectories, AssetResolveEvent event) {
         if (candidateFile == null) {
             return null;
         }
+        if (probedDirectories != null && candidateFile.getParent() != null) {
+            probedDirectories.add(candidateFile.getParent());
+        }
+        if (catalog != null && catalog.covers(candidateFile)) {
+            return catalog.findExisting(candidateFile);
+        }
+        event.probes++;
         if (Files.exists(candidateFile)) {
             return candidateFile;
         }
@@ -426,4 +556,10 @@ public final class AssetResolver {
             return null;
         }
     }
+
+    private record Resolution(Path path, int rank) {
+        boolean found() {
+            return rank != NOT_FOUND;
+        }
+    }
 }
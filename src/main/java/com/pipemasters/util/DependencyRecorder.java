@@ -0,0 +1,85 @@
+package com.pipemasters.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class DependencyRecorder {
+    private static final ThreadLocal<Set<Path>> ACTIVE = new ThreadLocal<>();
+
+    private DependencyRecorder() {
+    }
+
+    public static <T> T record(Set<Path> dependencies, Task<T> task) throws IOException {
+        Set<Path> previous = ACTIVE.get();
+        ACTIVE.set(dependencies);
+        try {
+            return task.run();
+        } finally {
+            if (previous != null) {
+                ACTIVE.set(previous);
+                previous.addAll(dependencies);
+            } else {
+                ACTIVE.remove();
+            }
+        }
+    }
+
+    public static boolean isRecording() {
+        return ACTIVE.get() != null;
+    }
+
+    public static void touch(Path path) {
+        Set<Path> dependencies = ACTIVE.get();
+        if (dependencies != null && path != null) {
+            dependencies.add(path.toAbsolutePath().normalize());
+        }
+    }
+
+    public static <K, V> V memoize(Map<K, Memoized<V>> cache, K key, Function<? super K, ? extends V> loader) {
+        Memoized<V> memoized = cache.get(key);
+        if (memoized == null) {
+            Memoized<V> loaded = capture(() -> loader.apply(key));
+            memoized = cache.putIfAbsent(key, loaded);
+            if (memoized == null) {
+                memoized = loaded;
+            }
+        }
+        return replay(memoized);
+    }
+
+    public static <V> Memoized<V> capture(Supplier<? extends V> loader) {
+        Set<Path> dependencies = new HashSet<>();
+        Set<Path> previous = ACTIVE.get();
+        ACTIVE.set(dependencies);
+        try {
+            return new Memoized<>(loader.get(), Set.copyOf(dependencies));
+        } finally {
+            if (previous != null) {
+                ACTIVE.set(previous);
+            } else {
+                ACTIVE.remove();
+            }
+        }
+    }
+
+    public static <V> V replay(Memoized<V> memoized) {
+        Set<Path> dependencies = ACTIVE.get();
+        if (dependencies != null) {
+            dependencies.addAll(memoized.dependencies());
+        }
+        return memoized.value();
+    }
+
+    public record Memoized<V>(V value, Set<Path> dependencies) {
+    }
+
+    @FunctionalInterface
+    public interface Task<T> {
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,4 @@
+package com.pipemasters.util;
+
+public record FileFingerprint(String path, long size, long lastModified, String sha256) {
+}
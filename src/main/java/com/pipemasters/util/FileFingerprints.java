@@ -0,0 +1,124 @@
+package com.pipemasters.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+public final class FileFingerprints {
+    private static final Logger LOGGER = LogManager.getLogger(FileFingerprints.class);
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final Map<Path, FileFingerprint> current = new ConcurrentHashMap<>();
+
+    public FileFingerprint fingerprint(Path path) throws IOException {
+        Path normalized = path.toAbsolutePath().normalize();
+        FileFingerprint cached = current.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+        BasicFileAttributes attributes = readAttributes(normalized);
+        FileFingerprint fingerprint = attributes == null
+                ? new FileFingerprint(normalized.toString(), -1L, -1L, null)
+                : new FileFingerprint(normalized.toString(), attributes.size(), attributes.lastModifiedTime().toMillis(), sha256(normalized));
+        FileFingerprint existing = current.putIfAbsent(normalized, fingerprint);
+        return existing != null ? existing : fingerprint;
+    }
+
+    public boolean matches(FileFingerprint recorded) {
+        if (recorded == null || recorded.path() == null) {
+            return false;
+        }
+        Path path = Path.of(recorded.path());
+        try {
+            FileFingerprint hashed = current.get(path);
+            if (hashed == null) {
+                BasicFileAttributes attributes = readAttributes(path);
+                if (attributes == null) {
+                    return recorded.sha256() == null;
+                }
+                if (recorded.sha256() != null
+                        && attributes.size() == recorded.size()
+                        && attributes.lastModifiedTime().toMillis() == recorded.lastModified()) {
+                    return true;
+                }
+                hashed = fingerprint(path);
+            }
+            return Objects.equals(recorded.sha256(), hashed.sha256());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public boolean isHashed(Path path) {
+        return path != null && current.containsKey(path.toAbsolutePath().normalize());
+    }
+
+    public static String codeStamp(Class<?> type) {
+        try {
+            Path location = Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+            if (!Files.isDirectory(location)) {
+                return location.getFileName() + "@" + Files.size(location) + ":" + Files.getLastModifiedTime(location).toMillis();
+            }
+            try (Stream<Path> files = Files.walk(location)) {
+                long latest = files.filter(Files::isRegularFile)
+                        .mapToLong(FileFingerprints::lastModified)
+                        .max()
+                        .orElse(0L);
+                return "classes@" + latest;
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            LOGGER.warn("Unable to determine the build stamp of '{}': {}", type.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String sha256(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(path)) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.pipemasters.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public final class JsonFileInput {
+    private static final String PROPERTY_MMAP_ENABLED = "json.mmap";
+    private static final String ENV_MMAP_ENABLED = "JSON_MMAP";
+    private static final String PROPERTY_MMAP_THRESHOLD = "json.mmapThreshold";
+    private static final String ENV_MMAP_THRESHOLD = "JSON_MMAP_THRESHOLD";
+    private static final long DEFAULT_MMAP_THRESHOLD = 4L * 1024 * 1024;
+    private static final int MIN_BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE - 8;
+    private static final BlockingQueue<byte[]> BUFFERS = new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    private JsonFileInput() {
+    }
+
+    public static boolean isMmapEnabled() {
+        String value = System.getProperty(PROPERTY_MMAP_ENABLED);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_MMAP_ENABLED);
+        }
+        return value != null && (value.trim().equalsIgnoreCase("true") || value.trim().equals("1"));
+    }
+
+    public static long mmapThreshold() {
+        String value = System.getProperty(PROPERTY_MMAP_THRESHOLD);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(ENV_MMAP_THRESHOLD);
+        }
+        if (value == null || value.isBlank()) {
+            return DEFAULT_MMAP_THRESHOLD;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return DEFAULT_MMAP_THRESHOLD;
+        }
+    }
+
+    public static JsonNode readTree(ObjectMapper mapper, Path path) throws IOException {
+        return readTree(mapper, path, mmapThreshold(), isMmapEnabled());
+    }
+
+    public static JsonNode readTree(ObjectMapper mapper, Path path, long mmapThreshold, boolean mapLargeFiles) throws IOException {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(path, "path");
+        JsonReadEvent event = new JsonReadEvent();
+        event.begin();
+        if (mmapThreshold < 0) {
+            JsonNode root = mapper.readTree(path.toFile());
+            event.complete(path, -1, "stream");
+            return root;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            JsonNode root;
+            String mode;
+            if (size > MAX_MAPPED_SIZE || (size > mmapThreshold && !mapLargeFiles)) {
+                root = mapper.readTree(path.toFile());
+                mode = "stream";
+            } else if (size > mmapThreshold) {
+                root = mapper.readTree(map(channel, size));
+                mode = "mapped";
+            } else {
+                byte[] buffer = borrow((int) size);
+                try {
+                    root = mapper.readTree(buffer, 0, readFully(channel, buffer, (int) size));
+                } finally {
+                    release(buffer, mmapThreshold);
+                }
+                mode = "pooled";
+            }
+            event.complete(path, size, mode);
+            return root;
+        }
+    }
+
+    public static JsonParser createParser(ObjectMapper mapper, Path path) throws IOException {
+        return createParser(mapper, path, mmapThreshold(), isMmapEnabled());
+    }
+
+    public static JsonParser createParser(ObjectMapper mapper, Path path, long mmapThreshold, boolean mapLargeFiles) throws IOException {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(path, "path");
+        if (mmapThreshold < 0) {
+            return mapper.getFactory().createParser(path.toFile());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_MAPPED_SIZE || (size > mmapThreshold && !mapLargeFiles)) {
+                return mapper.getFactory().createParser(path.toFile());
+            }
+            if (size > mmapThreshold) {
+                return mapper.getFactory().createParser(map(channel, size));
+            }
+            byte[] buffer = borrow((int) size);
+            try {
+                int length = readFully(channel, buffer, (int) size);
+                return new PooledBufferParser(mapper.getFactory().createParser(buffer, 0, length), buffer, mmapThreshold);
+            } catch (IOException | RuntimeException e) {
+                release(buffer, mmapThreshold);
+                throw e;
+            }
+        }
+    }
+
+    private static InputStream map(FileChannel channel, long size) throws IOException {
+        return new ByteBufferBackedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    private static int readFully(FileChannel channel, byte[] buffer, int size) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(buffer, 0, size);
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                break;
+            }
+        }
+        return target.position();
+    }
+
+    private static byte[] borrow(int size) {
+        byte[] buffer = BUFFERS.poll();
+        if (buffer != null && buffer.length >= size) {
+            return buffer;
+        }
+        int capacity = size <= MIN_BUFFER_SIZE ? MIN_BUFFER_SIZE : Integer.highestOneBit(size - 1) << 1;
+        return new byte[Math.max(capacity, size)];
+    }
+
+    private static void release(byte[] buffer, long mmapThreshold) {
+        if (buffer.length <= Math.max(MIN_BUFFER_SIZE, mmapThreshold)) {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    private static final class PooledBufferParser extends JsonParserDelegate {
+        private final long mmapThreshold;
+        private byte[] buffer;
+
+        private PooledBufferParser(JsonParser parser, byte[] buffer, long mmapThreshold) {
+            super(parser);
+            this.buffer = buffer;
+            this.mmapThreshold = mmapThreshold;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (buffer != null) {
+                    release(buffer, mmapThreshold);
+                    buffer = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pipemasters.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.nio.file.Path;
+
+@Name("com.pipemasters.JsonRead")
+@Label("JSON Read")
+@Category({"FModelToSC", "JSON"})
+@Description("Parsing of an exported JSON file")
+public final class JsonReadEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Mode")
+    @Description("stream, mapped, pooled or selective")
+    String mode;
+
+    public void complete(Path path, long bytes, String mode) {
+        end();
+        if (shouldCommit()) {
+            this.path = path.toString();
+            this.bytes = bytes >= 0 ? bytes : path.toFile().length();
+            this.mode = mode;
+            commit();
+        }
+    }
+}
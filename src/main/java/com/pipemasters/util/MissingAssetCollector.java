@@ -0,0 +1,83 @@
+package com.pipemasters.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MissingAssetCollector {
+    private static final ObjectWriter REPORT_WRITER = new ObjectMapper().writerWithDefaultPrettyPrinter();
+
+    private final ConcurrentMap<String, MissingAsset> assets = new ConcurrentHashMap<>();
+
+    boolean record(String relativePath, String context) {
+        boolean[] created = new boolean[1];
+        MissingAsset asset = assets.computeIfAbsent(relativePath.toLowerCase(Locale.ROOT), key -> {
+            created[0] = true;
+            return new MissingAsset(relativePath);
+        });
+        asset.references().increment();
+        if (context != null && !context.isBlank()) {
+            asset.contexts().computeIfAbsent(context, key -> new LongAdder()).increment();
+        }
+        return created[0];
+    }
+
+    public MissingAssetReport report() {
+        List<MissingAssetReport.Entry> entries = new ArrayList<>(assets.size());
+        long referenceCount = 0;
+        for (MissingAsset asset : assets.values()) {
+            Map<String, Long> contexts = new TreeMap<>();
+            asset.contexts().forEach((context, count) -> contexts.put(context, count.sum()));
+            long references = asset.references().sum();
+            referenceCount += references;
+            entries.add(new MissingAssetReport.Entry(asset.path(), references, contexts));
+        }
+        entries.sort(Comparator.comparing((MissingAssetReport.Entry entry) -> entry.path().toLowerCase(Locale.ROOT)));
+        return new MissingAssetReport(entries.size(), referenceCount, entries);
+    }
+
+    public MissingAssetReport write(Path listFile, Path reportFile) throws IOException {
+        Path listPath = listFile.toAbsolutePath().normalize();
+        Path reportPath = reportFile.toAbsolutePath().normalize();
+        MissingAssetReport report = report();
+        if (report.assets().isEmpty()) {
+            Files.deleteIfExists(listPath);
+            Files.deleteIfExists(reportPath);
+            return report;
+        }
+
+        List<String> lines = report.assets().stream()
+                .map(MissingAssetReport.Entry::path)
+                .toList();
+        createParentDirectories(listPath);
+        Files.write(listPath, lines);
+        createParentDirectories(reportPath);
+        REPORT_WRITER.writeValue(reportPath.toFile(), report);
+        return report;
+    }
+
+    private static void createParentDirectories(Path path) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    private record MissingAsset(String path, LongAdder references, ConcurrentMap<String, LongAdder> contexts) {
+        private MissingAsset(String path) {
+            this(path, new LongAdder(), new ConcurrentHashMap<>());
+        }
+    }
+}
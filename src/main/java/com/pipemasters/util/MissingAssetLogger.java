@@ -8,15 +8,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Set;
 
-public final class MissingAssetLogger {
+public final class MissingAssetLogger implements AutoCloseable {
     private static final Logger LOGGER = LogManager.getLogger(MissingAssetLogger.class);
     private static final Path DEFAULT_OUTPUT_FILE = Path.of("missing-assets.txt");
     private static final Set<Path> RESET_OUTPUT_FILES = Collections.synchronizedSet(new HashSet<>());
@@ -30,15 +30,32 @@ public final class MissingAssetLogger {
     private final String exportsDirForward;
     private final String exportsDirForwardLower;
     private final Path outputFile;
+    private final MissingAssetWriter writer;
+    private final MissingAssetCollector collector;
 
     public MissingAssetLogger(Path rootDir) {
         this(rootDir, DEFAULT_OUTPUT_FILE);
     }
 
     public MissingAssetLogger(Path rootDir, Path outputFile) {
+        this(rootDir, outputFile, null);
+    }
+
+    public MissingAssetLogger(Path rootDir, MissingAssetCollector collector) {
+        this(rootDir, null, Objects.requireNonNull(collector, "collector"));
+    }
+
+    private MissingAssetLogger(Path rootDir, Path outputFile, MissingAssetCollector collector) {
         this.rootDir = rootDir != null ? rootDir.toAbsolutePath().normalize() : null;
-        this.outputFile = (outputFile != null ? outputFile : DEFAULT_OUTPUT_FILE).toAbsolutePath().normalize();
-        resetOutputFile(this.outputFile);
+        this.collector = collector;
+        if (collector != null) {
+            this.outputFile = null;
+            this.writer = null;
+        } else {
+            this.outputFile = (outputFile != null ? outputFile : DEFAULT_OUTPUT_FILE).toAbsolutePath().normalize();
+            resetOutputFile(this.outputFile);
+            this.writer = MissingAssetWriter.forFile(this.outputFile);
+        }
         this.exportsDir = findExportsRoot(this.rootDir);
         this.rootDirForward = toForwardSlashes(this.rootDir);
         this.rootDirForwardLower = rootDirForward != null ? rootDirForward.toLowerCase(Locale.ROOT) : null;
@@ -70,6 +87,7 @@ public final class MissingAssetLogger {
         if (normalized == null || normalized.isBlank()) {
             return;
         }
+        DependencyRecorder.touch(resolveExpectedFullPath(normalized));
         String display = buildMissingAssetDisplay(normalized);
         String message;
         if (context == null || context.isBlank()) {
@@ -77,14 +95,27 @@ public final class MissingAssetLogger {
         } else {
             message = String.format("Missing asset: %s (%s)", display, context);
         }
-        if (messages.add(message)) {
+        boolean firstOccurrence = collector != null
+                ? collectMissingAsset(normalized, context)
+                : messages.add(message);
+        if (firstOccurrence) {
             LOGGER.warn(message);
-            writeMissingAssetPath(normalized);
+            if (collector == null) {
+                writeMissingAssetPath(normalized);
+            }
         } else {
             LOGGER.debug("Suppressed duplicate missing asset log: {}", message);
         }
     }
 
+    private boolean collectMissingAsset(String asset, String context) {
+        String relativePath = buildRelativeAssetPath(asset, true);
+        if (relativePath == null || relativePath.isBlank()) {
+            return messages.add(asset);
+        }
+        return collector.record(relativePath, context);
+    }
+
     private void writeMissingAssetPath(String asset) {
         String relativePath = buildRelativeAssetPath(asset, true);
         if (relativePath == null || relativePath.isBlank()) {
@@ -96,17 +127,20 @@ public final class MissingAssetLogger {
                 return;
             }
         }
-        try {
-            Path parent = outputFile.getParent();
-            if (parent != null) {
-                Files.createDirectories(parent);
-            }
-            Files.writeString(outputFile, relativePath + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            LOGGER.error("Failed to record missing asset path {} to {}", relativePath, outputFile, e);
+        writer.append(relativePath);
+    }
+
+    public void flush() {
+        if (writer != null) {
+            writer.flush();
         }
     }
 
+    @Override
+    public void close() {
+        flush();
+    }
+
     private String buildMissingAssetDisplay(String asset) {
         Path expected = resolveExpectedFullPath(asset);
         if (expected != null) {
@@ -0,0 +1,9 @@
+package com.pipemasters.util;
+
+import java.util.List;
+import java.util.Map;
+
+public record MissingAssetReport(int assetCount, long referenceCount, List<Entry> assets) {
+    public record Entry(String path, long references, Map<String, Long> contexts) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.pipemasters.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+final class MissingAssetWriter {
+    private static final Logger LOGGER = LogManager.getLogger(MissingAssetWriter.class);
+    private static final Map<Path, MissingAssetWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(MissingAssetWriter::closeAll, "missing-asset-writer-shutdown"));
+    }
+
+    private final Path outputFile;
+    private final BlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private BufferedWriter writer;
+
+    private MissingAssetWriter(Path outputFile) {
+        this.outputFile = outputFile;
+        this.thread = new Thread(this::run, "missing-asset-writer-" + outputFile.getFileName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    static MissingAssetWriter forFile(Path outputFile) {
+        return WRITERS.computeIfAbsent(outputFile, MissingAssetWriter::new);
+    }
+
+    void append(String line) {
+        pending.add(new Entry(line, null, false));
+    }
+
+    void flush() {
+        if (!thread.isAlive()) {
+            return;
+        }
+        CountDownLatch written = new CountDownLatch(1);
+        pending.add(new Entry(null, written, false));
+        try {
+            while (!written.await(1, TimeUnit.SECONDS)) {
+                if (!thread.isAlive()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeAll() {
+        for (MissingAssetWriter writer : WRITERS.values()) {
+            writer.pending.add(new Entry(null, null, true));
+        }
+        for (MissingAssetWriter writer : WRITERS.values()) {
+            try {
+                writer.thread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pending.drainTo(batch, MAX_BATCH_SIZE - 1);
+            stopped = write(batch);
+            batch.clear();
+        }
+        closeWriter();
+    }
+
+    private boolean write(List<Entry> batch) {
+        boolean stopped = batch.stream().anyMatch(Entry::stop);
+        try {
+            for (Entry entry : batch) {
+                if (entry.line() != null) {
+                    openWriter().write(entry.line());
+                    writer.newLine();
+                }
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to record {} missing asset path(s) to {}", batch.size(), outputFile, e);
+            closeWriter();
+        } finally {
+            for (Entry entry : batch) {
+                if (entry.written() != null) {
+                    entry.written().countDown();
+                }
+            }
+        }
+        return stopped;
+    }
+
+    private BufferedWriter openWriter() throws IOException {
+        if (writer == null) {
+            Path parent = outputFile.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.error("Failed to close missing asset file {}", outputFile, e);
+        }
+        writer = null;
+    }
+
+    private record Entry(String line, CountDownLatch written, boolean stop) {
+    }
+}
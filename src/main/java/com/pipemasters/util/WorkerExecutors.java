@@ -0,0 +1,102 @@
+package com.pipemasters.util;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class WorkerExecutors {
+    public static final String VIRTUAL_THREADS_OPTION = "--virtual-threads";
+    public static final int DEFAULT_VIRTUAL_CONCURRENCY = 256;
+
+    private WorkerExecutors() {
+    }
+
+    public static ExecutorService newWorkerPool(String namePrefix, int concurrency, boolean virtualThreads) {
+        Objects.requireNonNull(namePrefix, "namePrefix");
+        int limit = Math.max(1, concurrency);
+        if (virtualThreads) {
+            ThreadFactory factory = Thread.ofVirtual().name(namePrefix + "-", 1).factory();
+            return new ConcurrencyLimitedExecutor(Executors.newThreadPerTaskExecutor(factory), limit);
+        }
+        return Executors.newFixedThreadPool(limit, new DaemonThreadFactory(namePrefix));
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static final class ConcurrencyLimitedExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private ConcurrencyLimitedExecutor(ExecutorService delegate, int limit) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(limit);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            Objects.requireNonNull(command, "command");
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (command instanceof Future<?> future) {
+                        future.cancel(false);
+                    }
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -2,13 +2,15 @@ package com.pipemasters.vehicles;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.pipemasters.units.VehiclesParser;
+import com.pipemasters.units.UnitsWorkspace;
+import com.pipemasters.util.WorkerExecutors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 public final class VehiclesMain {
@@ -18,23 +20,33 @@ public final class VehiclesMain {
     }
 
     public static void main(String[] args) throws IOException {
-        if (args.length < 1 || args.length > 2) {
-            LOGGER.error("Usage: java -jar app.jar <path-to-faction-setup-root> [threads]");
+        List<String> positional = new ArrayList<>();
+        boolean virtualThreads = false;
+        for (String arg : args) {
+            if (arg.equals(WorkerExecutors.VIRTUAL_THREADS_OPTION)) {
+                virtualThreads = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        if (positional.size() < 1 || positional.size() > 2) {
+            LOGGER.error("Usage: java -jar app.jar <path-to-faction-setup-root> [threads] [--virtual-threads]");
             System.exit(1);
         }
 
-        Path baseDir = Path.of(args[0]).toAbsolutePath().normalize();
+        Path baseDir = Path.of(positional.get(0)).toAbsolutePath().normalize();
         if (!Files.exists(baseDir)) {
             LOGGER.error("Input directory '{}' does not exist.", baseDir);
             System.exit(1);
         }
 
-        int threads = 8;
-        if (args.length == 2) {
+        int threads = virtualThreads ? WorkerExecutors.DEFAULT_VIRTUAL_CONCURRENCY : 8;
+        if (positional.size() == 2) {
             try {
-                threads = Integer.parseInt(args[1]);
+                threads = Integer.parseInt(positional.get(1));
             } catch (NumberFormatException e) {
-                LOGGER.error("Invalid thread count '{}'. Expected a positive integer.", args[1]);
+                LOGGER.error("Invalid thread count '{}'. Expected a positive integer.", positional.get(1));
                 System.exit(1);
             }
             if (threads < 1) {
@@ -46,20 +58,13 @@ public final class VehiclesMain {
         ObjectMapper mapper = new ObjectMapper();
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
 
-        VehiclesParser parser = new VehiclesParser(mapper, baseDir);
+        Path outputPath = Path.of("").toAbsolutePath().normalize().resolve("output").resolve("vehiclesSAT.json");
         LOGGER.info("Starting vehicles export using base directory '{}'", baseDir);
-        LOGGER.info("Using {} thread(s) for vehicle parsing.", threads);
-        List<VehicleExport> vehicles = parser.parse(threads);
-        LOGGER.info("Parsed {} unique vehicles.", vehicles.size());
-
-        Path projectRoot = Path.of("").toAbsolutePath().normalize();
-        Path outputDir = projectRoot.resolve("output");
-        Files.createDirectories(outputDir);
-
-        Path outputPath = outputDir.resolve("vehiclesSAT.json");
-        Files.deleteIfExists(outputPath);
-        mapper.writeValue(outputPath.toFile(), vehicles);
-
-        LOGGER.info("Wrote vehicles JSON to '{}'", outputPath);
+        if (virtualThreads) {
+            LOGGER.info("Using virtual threads for vehicle parsing with at most {} file(s) in flight.", threads);
+        } else {
+            LOGGER.info("Using {} thread(s) for vehicle parsing.", threads);
+        }
+        new UnitsWorkspace(mapper).exportVehicles(baseDir, outputPath, threads, virtualThreads);
     }
 }
@@ -0,0 +1,97 @@
+package com.pipemasters.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pipemasters.layerdata.GameMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapturePointsParserTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CapturePointsParser parser = new CapturePointsParser(mapper);
+
+    @AfterEach
+    void clearMaxPaths() {
+        System.clearProperty("capture.maxPaths");
+    }
+
+    @Test
+    void branchingGraphConcatenatesEveryPathSortedByName() {
+        CaptureClusters clusters = parse(
+                "USMCMain", "Cluster_B1",
+                "USMCMain", "Cluster_A0",
+                "Cluster_B1", "Cluster_C2",
+                "Cluster_A0", "Cluster_D3",
+                "Cluster_A0", "Cluster_C2",
+                "Cluster_C2", "RUMain",
+                "Cluster_D3", "RUMain").clusters();
+
+        assertEquals(List.of(
+                "00-Team1 Main", "Cluster_A0", "Cluster_C2",
+                "00-Team1 Main", "Cluster_A0", "Cluster_D3",
+                "00-Team1 Main", "Cluster_B1", "Cluster_C2", "Z-Team2 Main"), clusters.pointsOrder());
+        assertEquals(10, clusters.numberOfPoints());
+        assertEquals(List.of("00-Team1 Main", "Z-Team2 Main"), clusters.listOfMains());
+    }
+
+    @Test
+    void linearGraphListsEveryPointOnce() {
+        CaptureClusters clusters = parse(
+                "Cluster_A0", "Cluster_B1",
+                "USMCMain", "Cluster_A0",
+                "Cluster_B1", "RUMain").clusters();
+
+        assertEquals(List.of("00-Team1 Main", "Cluster_A0", "Cluster_B1", "Z-Team2 Main"), clusters.pointsOrder());
+        assertEquals(4, clusters.numberOfPoints());
+    }
+
+    @Test
+    void cycleOffThePathIsWalkedAsSimplePaths() {
+        CaptureClusters clusters = parse(
+                "USMCMain", "Cluster_A0",
+                "Cluster_A0", "Cluster_B1",
+                "Cluster_B1", "Cluster_A0",
+                "Cluster_B1", "RUMain").clusters();
+
+        assertEquals(List.of("00-Team1 Main", "Cluster_A0", "Cluster_B1", "Z-Team2 Main"), clusters.pointsOrder());
+    }
+
+    @Test
+    void tooManyPathsFailWithTheLimit() {
+        System.setProperty("capture.maxPaths", "2");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> parse(
+                "USMCMain", "Cluster_A0",
+                "USMCMain", "Cluster_B1",
+                "USMCMain", "Cluster_C2",
+                "Cluster_A0", "RUMain",
+                "Cluster_B1", "RUMain",
+                "Cluster_C2", "RUMain"));
+        assertTrue(error.getMessage().contains("more than 2 start-to-end paths"), error.getMessage());
+    }
+
+    private CapturePoints parse(String... nodes) {
+        ArrayNode links = mapper.createArrayNode();
+        for (int i = 0; i < nodes.length; i += 2) {
+            ObjectNode link = links.addObject();
+            link.putObject("NodeA").put("ObjectName", objectName(nodes[i]));
+            link.putObject("NodeB").put("ObjectName", objectName(nodes[i + 1]));
+        }
+        ObjectNode initializer = mapper.createObjectNode();
+        initializer.put("Type", "SQGraphRAASInitializerComponent");
+        initializer.put("Name", "GraphInitializer");
+        initializer.putObject("Properties").set("DesignOutgoingLinks", links);
+        JsonNode root = mapper.createArrayNode().add(initializer);
+        return parser.parseCapturePoints(root, GameMode.INVASION);
+    }
+
+    private static String objectName(String node) {
+        return "BP_CaptureZone_C'/Game/Maps/Test/Test.Test:PersistentLevel." + node + "'";
+    }
+}
@@ -0,0 +1,72 @@
+package com.pipemasters.layer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayerJsonReaderTest {
+    private static final String LAYER = """
+            [
+              {"Type": "BP_Custom_C", "Name": "Custom", "Properties": {"Radius": 5, "Nested": {"Value": 1}}},
+              {"Type": "StaticMeshActor", "Name": "Rock", "Properties": {"RootComponent": {"ObjectName": "x"}, "Mesh": "y"}},
+              {"Type": "PointLight", "Name": "Light", "Properties": {"Intensity": 3}}
+            ]
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void visitorTypesAreReadInFullAndOthersAreReduced() throws IOException {
+        Path layer = directory.resolve("layer.json");
+        Files.writeString(layer, LAYER);
+        RecordingVisitor custom = new RecordingVisitor(Set.of("BP_Custom_C"), false);
+        RecordingVisitor all = new RecordingVisitor(Set.of(), true);
+        LayerScanner scanner = new LayerScanner().register(custom).register(all);
+
+        scanner.scan(new LayerJsonReader(new ObjectMapper()).read(layer, scanner.nodeTypes()));
+
+        assertEquals(1, custom.nodes.size());
+        assertEquals(1, custom.nodes.getFirst().path("Properties").path("Nested").path("Value").asInt());
+        assertEquals(List.of("BP_Custom_C", "StaticMeshActor"), all.nodes.stream().map(node -> node.path("Type").asText()).toList());
+        JsonNode rock = all.nodes.get(1).path("Properties");
+        assertTrue(rock.has("RootComponent"));
+        assertFalse(rock.has("Mesh"));
+    }
+
+    private static final class RecordingVisitor implements LayerNodeVisitor {
+        private final Set<String> nodeTypes;
+        private final boolean visitsAllTypes;
+        private final List<JsonNode> nodes = new ArrayList<>();
+
+        private RecordingVisitor(Set<String> nodeTypes, boolean visitsAllTypes) {
+            this.nodeTypes = nodeTypes;
+            this.visitsAllTypes = visitsAllTypes;
+        }
+
+        @Override
+        public Set<String> nodeTypes() {
+            return nodeTypes;
+        }
+
+        @Override
+        public boolean visitsAllTypes() {
+            return visitsAllTypes;
+        }
+
+        @Override
+        public void visit(String type, JsonNode node) {
+            nodes.add(node);
+        }
+    }
+}